@@ -0,0 +1,128 @@
+package com.sparta.meeting_platform.chat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.meeting_platform.chat.dto.ChatMessageDto;
+import com.sparta.meeting_platform.chat.model.ChatMessage;
+import com.sparta.meeting_platform.chat.repository.ChatMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 채팅 메시지 한건 저장(캐시) 지연시간 비교, 방에 이미 10 / 1k / 10k 개 메시지가 있을 때
+ * - readModifyWrite : CHAT_MESSAGE 해시에서 방 전체 목록을 읽어 하나 붙이고 통째로 다시 쓴다. (이전)
+ * - append : ChatMessageRepository.save (chat:{roomId} LIST 에 Lua 로 RPUSH + LTRIM) (현재)
+ * 실제 Redis 가 필요하다. (REDIS_HOST, REDIS_PORT 환경변수, 기본 localhost:6379, 벤치마크 key 만 지운다)
+ *   ./gradlew jmh -Pjmh.includes=ChatHistoryAppendBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatHistoryAppendBenchmark {
+    private static final String ROOM_ID = "jmh-room";
+    private static final String CHAT_MESSAGE = "CHAT_MESSAGE";
+
+    @Param({"10", "1000", "10000"})
+    private int historySize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate stringRedisTemplate;
+    private ChatMessageRepository chatMessageRepository;
+    private ChatMessageDto messageDto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        // 최대 길이를 historySize 로 두어 목록 길이를 유지한다. (DB 는 쓰지 않는다)
+        chatMessageRepository = new ChatMessageRepository(null, stringRedisTemplate, objectMapper,
+                historySize, 10000, new SimpleMeterRegistry());
+        messageDto = message(0);
+    }
+
+    // 매 측정 반복마다 방을 historySize 개 메시지로 다시 채운다.
+    @Setup(Level.Iteration)
+    public void fill() throws Exception {
+        clear();
+        List<ChatMessageDto> history = new ArrayList<>();
+        List<String> jsons = new ArrayList<>();
+        for (int i = 0; i < historySize; i++) {
+            ChatMessageDto chatMessageDto = message(i);
+            history.add(chatMessageDto);
+            jsons.add(objectMapper.writeValueAsString(chatMessageDto));
+        }
+        stringRedisTemplate.opsForHash().put(CHAT_MESSAGE, ROOM_ID, objectMapper.writeValueAsString(history));
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            stringRedisConnection.rPush("chat:" + ROOM_ID, jsons.toArray(new String[0]));
+            return null;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clear();
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public Object readModifyWrite() throws Exception {
+        String json = (String) stringRedisTemplate.opsForHash().get(CHAT_MESSAGE, ROOM_ID);
+        List<ChatMessageDto> chatMessageList = json == null
+                ? new ArrayList<>()
+                : objectMapper.readValue(json, new TypeReference<List<ChatMessageDto>>() {});
+        chatMessageList.add(messageDto);
+        // 이전 코드는 자르지 않았지만, 반복하는 동안 방 크기를 historySize 로 고정하기 위해 맨 앞 하나를 뺀다.
+        if (chatMessageList.size() > historySize) {
+            chatMessageList.remove(0);
+        }
+        stringRedisTemplate.opsForHash().put(CHAT_MESSAGE, ROOM_ID, objectMapper.writeValueAsString(chatMessageList));
+        stringRedisTemplate.expire(CHAT_MESSAGE, 24, TimeUnit.HOURS);
+        return chatMessageList;
+    }
+
+    @Benchmark
+    public Object append() {
+        return chatMessageRepository.save(messageDto);
+    }
+
+    private void clear() {
+        stringRedisTemplate.delete(CHAT_MESSAGE);
+        stringRedisTemplate.delete("chat:" + ROOM_ID);
+        stringRedisTemplate.delete("chat:pending:" + ROOM_ID);
+        stringRedisTemplate.opsForZSet().remove("chat:resident", "chat:" + ROOM_ID);
+    }
+
+    private ChatMessageDto message(long id) {
+        return new ChatMessageDto(id, ChatMessage.MessageType.TALK, ROOM_ID, "안녕하세요, 오늘 약속 장소는 그대로인가요?",
+                "닉네임", "https://example.com/profile/1.png", 5L, 7L, "18,10,2026,12,30,00", null, false);
+    }
+}
@@ -0,0 +1,100 @@
+package com.sparta.meeting_platform.chat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.meeting_platform.chat.dto.ChatMessageDto;
+import com.sparta.meeting_platform.chat.model.ChatMessage;
+import com.sparta.meeting_platform.chat.repository.ChatRoomRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 채팅 메시지 한건의 발행 -> 구독자 전달 CPU/할당 비교 (RedisPublisher, RedisSubscriber)
+ * - reencode : JSON 문자열로 발행, 받아서 ChatMessageDto 로 읽은 뒤 convertAndSend 에서 다시 JSON 으로 변환 (이전)
+ * - passThrough : JSON bytes 로 한번만 만들어 발행, 받은 bytes 를 그대로 전달 (현재)
+ * Redis/브로커는 빼고 서버 안에서 하는 일만 잰다. 할당량은 gc 프로파일러(gc.alloc.rate.norm)로 본다.
+ *   ./gradlew jmh -Pjmh.includes=ChatRelayBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatRelayBenchmark {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StringRedisSerializer stringSerializer = StringRedisSerializer.UTF_8;
+    private final LastMessageChannel channel = new LastMessageChannel();
+    private SimpMessagingTemplate messagingTemplate;
+    private ChatMessageDto messageDto;
+    private byte[] channelName;
+
+    @Setup
+    public void setUp() {
+        // 브로커 기본 변환기 (AbstractMessageBrokerConfiguration 과 같은 구성)
+        messagingTemplate = new SimpMessagingTemplate(channel);
+        messagingTemplate.setMessageConverter(new CompositeMessageConverter(Arrays.asList(
+                new StringMessageConverter(), new ByteArrayMessageConverter(), new MappingJackson2MessageConverter())));
+        messageDto = new ChatMessageDto(1234567L, ChatMessage.MessageType.TALK, "42", "안녕하세요, 오늘 약속 장소는 그대로인가요?",
+                "닉네임", "https://example.com/profile/1.png", 5L, 7L, "18,10,2026,12,30,00", null, false);
+        channelName = ChatRoomRepository.getTopic("42").getTopic().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Message<?> reencode() throws Exception {
+        // 발행
+        byte[] body = stringSerializer.serialize(objectMapper.writeValueAsString(messageDto));
+        // 구독
+        String roomId = new String(channelName, StandardCharsets.UTF_8).substring(ChatRoomRepository.TOPIC_PREFIX.length());
+        ChatMessageDto received = objectMapper.readValue(stringSerializer.deserialize(body), ChatMessageDto.class);
+        messagingTemplate.convertAndSend("/sub/chat/room/" + roomId, received);
+        return channel.last;
+    }
+
+    @Benchmark
+    public Message<?> passThrough() throws Exception {
+        // 발행
+        byte[] body = objectMapper.writeValueAsBytes(messageDto);
+        // 구독
+        String roomId = new String(channelName, StandardCharsets.UTF_8).substring(ChatRoomRepository.TOPIC_PREFIX.length());
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send("/sub/chat/room/" + roomId, MessageBuilder.createMessage(body, accessor.getMessageHeaders()));
+        return channel.last;
+    }
+
+    // 브로커 대신 마지막 메시지만 들고 있는다. (JIT 가 전달을 지우지 못하게 benchmark 에서 반환)
+    private static class LastMessageChannel implements MessageChannel {
+        private Message<?> last;
+
+        @Override
+        public boolean send(Message<?> message, long timeout) {
+            last = message;
+            return true;
+        }
+    }
+}
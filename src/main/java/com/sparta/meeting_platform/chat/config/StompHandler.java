@@ -1,8 +1,8 @@
 package com.sparta.meeting_platform.chat.config;
 
-import com.sparta.meeting_platform.chat.repository.ChatMessageRepository;
-import com.sparta.meeting_platform.chat.repository.InvitedUsersRepository;
+import com.sparta.meeting_platform.chat.service.ChatPresenceService;
 import com.sparta.meeting_platform.chat.service.ChatRoomService;
+import com.sparta.meeting_platform.chat.service.ChatSenderService;
 import com.sparta.meeting_platform.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.Message;
@@ -10,6 +10,7 @@ import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.stereotype.Component;
 
 import java.util.Optional;
@@ -22,8 +23,8 @@ import java.util.Optional;
 public class StompHandler implements ChannelInterceptor {
     private final JwtTokenProvider jwtTokenProvider;
     private final ChatRoomService chatRoomService;
-    private final ChatMessageRepository chatMessageRepository;
-    private final InvitedUsersRepository invitedUsersRepository;
+    private final ChatPresenceService chatPresenceService;
+    private final ChatSenderService chatSenderService;
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -31,20 +32,36 @@ public class StompHandler implements ChannelInterceptor {
         String sessionId = (String) message.getHeaders().get("simpSessionId");
         // websocket 연결시 헤더의 jwt token 검증
         if (StompCommand.CONNECT == accessor.getCommand()) {
-            jwtTokenProvider.validateToken(accessor.getFirstNativeHeader("token"));
-            // 구독 요청시 유저의 카운트수를 저장하고 최대인원수를 관리하며 , 세션정보를 저장한다.
-        } else if (StompCommand.SUBSCRIBE == accessor.getCommand()) {
+            String token = accessor.getFirstNativeHeader("token");
+            if (token != null && jwtTokenProvider.validateToken(token)) {
+                // 인증된 유저 id 를 세션에 저장 (메시지 보낼 때 사용)
+                Long userId = chatSenderService.connect(jwtTokenProvider.getUserPk(token));
+                accessor.getSessionAttributes().put(ChatSenderService.SESSION_USER_ID, userId);
+                // 유저별 알림(/user/queue/notifications) 을 위해 웹소켓 유저 이름을 유저 id 로 설정
+                StompHeaderAccessor connectAccessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                if (connectAccessor != null) {
+                    String name = String.valueOf(userId);
+                    connectAccessor.setUser(() -> name);
+                }
+            }
+            // 구독 요청시 채팅방 접속 세션으로 기록한다.
+        } else if (StompCommand.SUBSCRIBE == accessor.getCommand() && !isUserDestination(message)) {
             String roomId = chatRoomService.getRoomId((String) Optional.ofNullable(message.getHeaders().get("simpDestination")).orElse("InvalidRoomId"));
-            chatMessageRepository.plusUserCnt(roomId);
-            chatMessageRepository.setUserEnterInfo(roomId, sessionId);
+            chatPresenceService.join(sessionId, accessor.getSubscriptionId(), roomId);
 
-            // 채팅방 나간 유저의 카운트 수를 반영하고, 방에서 세션정보를 지움
-        } else if (StompCommand.UNSUBSCRIBE == accessor.getCommand() || StompCommand.DISCONNECT == accessor.getCommand()) {
-            String roomId = chatRoomService.getRoomId((String) Optional.ofNullable(message.getHeaders().get("simpDestination")).orElse("InvalidRoomId"));
-            chatMessageRepository.removeUserEnterInfo(sessionId, roomId);
-            chatMessageRepository.minusUserCnt(roomId);
+            // 구독 취소는 subscriptionId 로, 연결 종료는 세션의 모든 구독을 지운다. (목적지 헤더가 없다)
+        } else if (StompCommand.UNSUBSCRIBE == accessor.getCommand()) {
+            chatPresenceService.leave(sessionId, accessor.getSubscriptionId());
+        } else if (StompCommand.DISCONNECT == accessor.getCommand()) {
+            chatPresenceService.disconnect(sessionId);
         }
         return message;
     }
+
+    // 유저별 알림 구독은 채팅방 인원수에 넣지 않는다.
+    private boolean isUserDestination(Message<?> message) {
+        String destination = (String) message.getHeaders().get("simpDestination");
+        return destination != null && destination.startsWith("/user/");
+    }
 }
 
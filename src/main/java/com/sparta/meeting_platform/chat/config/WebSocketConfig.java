@@ -36,12 +36,15 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
      * 2.setApplicationDestinationPrefixes
      * - 메세지를 보낼때 관련 경로를 설정해주는 함수.
      * - 클라이언트가 메세지를 보낼때, api에 prefix로 "/pub"이 붙어있으면 broker로 메세지가 보내진다.
+     * 3.setUserDestinationPrefix
+     * - "/user/queue/notifications" 구독시 유저별 알림을 받는다. (NotificationPushService)
      *  */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         registry
                 .setApplicationDestinationPrefixes("/pub")
-                .enableSimpleBroker("/sub");
+                .setUserDestinationPrefix("/user")
+                .enableSimpleBroker("/sub", "/queue");
     }
 
     /*
@@ -3,15 +3,18 @@ package com.sparta.meeting_platform.chat.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.sparta.meeting_platform.chat.dto.ChatMessageDto;
+import com.sparta.meeting_platform.chat.dto.ChatMessagePageDto;
 import com.sparta.meeting_platform.chat.dto.FilesDto;
 import com.sparta.meeting_platform.chat.dto.UserDetailDto;
 import com.sparta.meeting_platform.chat.dto.UserinfoDto;
+import com.sparta.meeting_platform.chat.service.ChatSenderService;
 import com.sparta.meeting_platform.chat.service.ChatService;
+import com.sparta.meeting_platform.exception.UserApiException;
 import com.sparta.meeting_platform.security.UserDetailsImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
@@ -29,8 +32,13 @@ public class ChatController {
      * websocket "/pub/chat/message"로 들어오는 메시징을 처리한다.
      */
     @MessageMapping({"/chat/message"})
-    public void message(ChatMessageDto message, @Header("PK") Long pk) throws JsonProcessingException {
-        chatService.save(message, pk);
+    public void message(ChatMessageDto message, SimpMessageHeaderAccessor accessor) throws JsonProcessingException {
+        // CONNECT 때 토큰으로 확인한 유저 id (StompHandler)
+        Long userId = (Long) accessor.getSessionAttributes().get(ChatSenderService.SESSION_USER_ID);
+        if (userId == null) {
+            throw new UserApiException("로그인이 필요합니다.");
+        }
+        chatService.save(message, userId);
     }
 
     //이전 채팅 기록 조회
@@ -40,6 +48,15 @@ public class ChatController {
         return chatService.getMessages(roomId);
     }
 
+    //이전 채팅 기록 페이지 조회 (cursor 없으면 최근 메시지)
+    @GetMapping("/chat/messages/{roomId}")
+    @ResponseBody
+    public ChatMessagePageDto getMessagePage(@PathVariable String roomId,
+                                             @RequestParam(required = false) Long cursor,
+                                             @RequestParam(defaultValue = "50") int size) {
+        return chatService.getMessagePage(roomId, cursor, size);
+    }
+
     //채팅방에 파일 넣을때 url 빼오기
     @PostMapping("/chat/message/file")
     @ResponseBody
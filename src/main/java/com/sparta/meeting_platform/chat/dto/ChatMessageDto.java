@@ -12,6 +12,7 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ChatMessageDto {
+    private Long id; // 메시지 번호 (이전 메시지 조회 커서)
     private ChatMessage.MessageType type; // 메시지 타입
     private String roomId; // 방번호
     private String message; // 메시지
@@ -25,6 +26,7 @@ public class ChatMessageDto {
 
 
     public ChatMessageDto(ChatMessage chatMessage, String createdAt) {
+        this.id = chatMessage.getId();
         this.type = chatMessage.getType();
         this.roomId = chatMessage.getRoomId();
         this.message = chatMessage.getMessage();
@@ -0,0 +1,13 @@
+package com.sparta.meeting_platform.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ChatMessagePageDto {
+    private List<ChatMessageDto> messages; // 오래된 메시지부터
+    private Long nextCursor; // 이전 메시지 조회시 cursor 로 보낼 값, 더 없으면 null
+}
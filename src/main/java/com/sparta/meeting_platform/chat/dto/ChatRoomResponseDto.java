@@ -15,4 +15,5 @@ public class ChatRoomResponseDto {
     private boolean isLetter;
     private String postTime;
     private Long postId;
+    private Long unreadCount; // 안 읽은 메시지 수
 }
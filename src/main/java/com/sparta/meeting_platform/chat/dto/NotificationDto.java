@@ -14,4 +14,5 @@ public class NotificationDto {
     LocalDateTime createdAt;
     String roomId;
     String title;
+    Long unreadCount; // 채팅방의 안 읽은 메시지 수 (message 는 최근 20개까지만)
 }
@@ -0,0 +1,18 @@
+package com.sparta.meeting_platform.chat.dto;
+
+import com.sparta.meeting_platform.domain.User;
+import lombok.Getter;
+
+// 채팅 보낸 사람 정보 (ChatSenderService 캐시)
+@Getter
+public class SenderDto {
+    private final Long userId;
+    private final String nickName;
+    private final String profileUrl;
+
+    public SenderDto(User user) {
+        this.userId = user.getId();
+        this.nickName = user.getNickName();
+        this.profileUrl = user.getProfileUrl();
+    }
+}
@@ -0,0 +1,18 @@
+package com.sparta.meeting_platform.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// 안 읽은 알림 서버간 전달 (Redis chat.notify 채널)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnreadEventDto {
+    private List<Long> userIds; // 받는 사람
+    private NotificationDto notification;
+}
@@ -0,0 +1,20 @@
+package com.sparta.meeting_platform.chat.dto;
+
+import lombok.Getter;
+
+// /user/queue/notifications 로 보내는 채팅방별 알림 (전송 간격 동안 모은 것)
+@Getter
+public class UnreadPushDto {
+    private final String roomId;
+    private long unreadDelta; // 지난 전송 이후 늘어난 안 읽은 메시지 수
+    private NotificationDto latest; // 가장 최근 메시지
+
+    public UnreadPushDto(String roomId) {
+        this.roomId = roomId;
+    }
+
+    public void add(NotificationDto notificationDto) {
+        unreadDelta++;
+        latest = notificationDto;
+    }
+}
@@ -12,6 +12,7 @@ import java.time.LocalDateTime;
 @Getter
 @Entity
 @NoArgsConstructor
+@Table(indexes = @Index(name = "idx_chat_message_room_id", columnList = "roomId, id"))
 public class ChatMessage {
     // 메시지 타입 : 입장, 채팅, 나가기
     public enum MessageType {
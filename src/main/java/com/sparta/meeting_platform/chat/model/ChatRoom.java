@@ -13,6 +13,7 @@ import java.io.Serializable;
 @Setter
 @NoArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "uk_chat_room_room_id", columnList = "roomId", unique = true))
 public class ChatRoom implements Serializable {
     private static final long serialVersionUID = 6494678977089006639L;
 
@@ -10,6 +10,7 @@ import javax.persistence.*;
 @Setter
 @NoArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "idx_resign_chat_room_room_id", columnList = "roomId"))
 public class ResignChatRoom {
 
     @Id
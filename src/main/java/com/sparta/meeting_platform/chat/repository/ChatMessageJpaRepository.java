@@ -1,7 +1,11 @@
 package com.sparta.meeting_platform.chat.repository;
 
 import com.sparta.meeting_platform.chat.model.ChatMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -9,5 +13,16 @@ public interface ChatMessageJpaRepository extends JpaRepository<ChatMessage, Lon
     List<ChatMessage> findAllByRoomId(String roomId);
     ChatMessage findTop1ByRoomIdOrderByCreatedAtDesc(String roomId);
 
+    // 최근 메시지부터 (캐시 채우기용)
+    List<ChatMessage> findByRoomIdOrderByIdDesc(String roomId, Pageable pageable);
+
+    // 커서(id) 이전 메시지부터 (room_id, id 인덱스)
+    List<ChatMessage> findByRoomIdAndIdLessThanOrderByIdDesc(String roomId, Long id, Pageable pageable);
+
     void deleteByRoomId(String RoomId);
+
+    // 엔티티를 읽지 않고 DELETE 한번으로 삭제
+    @Modifying
+    @Query("DELETE FROM ChatMessage c WHERE c.roomId = :roomId")
+    int bulkDeleteByRoomId(@Param("roomId") String roomId);
 }
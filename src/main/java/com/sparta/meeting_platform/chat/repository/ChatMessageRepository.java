@@ -1,113 +1,255 @@
 package com.sparta.meeting_platform.chat.repository;
 
 import com.sparta.meeting_platform.chat.dto.ChatMessageDto;
+import com.sparta.meeting_platform.chat.dto.ChatMessagePageDto;
 import com.sparta.meeting_platform.chat.model.ChatMessage;
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.HashOperations;
-import org.springframework.data.redis.core.RedisTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.annotation.PostConstruct;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
-import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 
-@RequiredArgsConstructor
+/*
+ * 채팅 메시지 캐시 : 방마다 Redis LIST (key : chat:{roomId}, value : ChatMessageDto JSON)
+ * - 메시지 추가는 Lua 스크립트로 RPUSH + LTRIM(최근 maxLength 개) + PEXPIRE 를 한번에 처리한다.
+ * - 캐시가 없는 방은 조회할때 DB 의 최근 메시지로 채운다. DB 저장은 write-behind(ChatMessageWriter)라 아직 저장 대기 중인
+ *   메시지가 있을 수 있으므로, 캐시가 없는 동안 추가되는 메시지는 chat:pending:{roomId} 에 모아 두고 채울 때 id 로 합친다.
+ *   (어느 서버의 큐에 있는 메시지든 빠지지 않는다)
+ * - 캐시된 방은 chat:resident (ZSET) 에 최근 사용시각으로 기록하고, maxRooms 를 넘으면 오래 안 쓴 방부터 지운다.
+ *   조회할 때마다 ttl 을 다시 24시간으로 늘리므로, 24시간 동안 아무도 안 본 방은 Redis 가 지운다.
+ * - 조회 결과는 chat.history.cache (result : hit/miss, room : full/partial) 로 센다.
+ */
+@Slf4j
 @Repository
 public class ChatMessageRepository {
 
-    private static final String CHAT_MESSAGE = "CHAT_MESSAGE"; // 채팅룸에 메세지들을 저장
-    public static final String USER_COUNT = "USER_COUNT"; // 채팅룸에 입장한 클라이언트수 저장
-    public static final String ENTER_INFO = "ENTER_INFO"; // 채팅룸에 입장한 클라이언트의 sessionId와 채팅룸 id를 맵핑한 정보 저장
+    private static final String CHAT_KEY = "chat:"; // 채팅룸 메세지 목록
+    private static final String RESIDENT_KEY = "chat:resident"; // 캐시된 채팅룸 목록 (score : 최근 사용시각)
+    private static final String PENDING_KEY = "chat:pending:"; // 캐시가 없는 동안 보낸 메시지
+    private static final long PENDING_TTL_MILLIS = 60 * 60 * 1000L; // spill 후 재시작까지 DB 에 없을 수 있다.
+    private static final long TTL_MILLIS = 24 * 60 * 60 * 1000L;
+    private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ofPattern("dd,MM,yyyy,HH,mm,ss", Locale.KOREA);
+
+    // 캐시가 있으면 추가, 없으면 pending 에 추가 (KEYS : chat:{roomId}, chat:resident, chat:pending:{roomId}
+    // / ARGV : 최대 길이, ttl, 메시지, 현재시각, pending ttl)
+    private static final RedisScript<Long> APPEND = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then "
+                    + "redis.call('RPUSH', KEYS[3], ARGV[3]) "
+                    + "redis.call('LTRIM', KEYS[3], -tonumber(ARGV[1]), -1) "
+                    + "redis.call('PEXPIRE', KEYS[3], ARGV[5]) "
+                    + "return 0 end "
+                    + "local size = redis.call('RPUSH', KEYS[1], ARGV[3]) "
+                    + "redis.call('LTRIM', KEYS[1], -tonumber(ARGV[1]), -1) "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[2]) "
+                    + "redis.call('ZADD', KEYS[2], ARGV[4], KEYS[1]) "
+                    + "return size", Long.class);
+    // 캐시가 있으면 [길이, 메시지...] 반환 + ttl/최근 사용시각 갱신, 없으면 빈 목록 (ARGV : start, end, ttl, 현재시각)
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> READ = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return {} end "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[3]) "
+                    + "redis.call('ZADD', KEYS[2], ARGV[4], KEYS[1]) "
+                    + "local messages = redis.call('LRANGE', KEYS[1], ARGV[1], ARGV[2]) "
+                    + "table.insert(messages, 1, tostring(redis.call('LLEN', KEYS[1]))) "
+                    + "return messages", List.class);
+    // 캐시가 없을 때만 DB 메시지 + pending 메시지(DB 에 없는 id 만)를 id 순으로 채우고 pending 을 지운다.
+    // 캐시된 방이 최대 개수를 넘으면 오래 안 쓴 방부터 지운다.
+    // 반환값 : 지운 방 수 (이미 캐시가 있으면 -1)
+    // (KEYS : chat:{roomId}, chat:resident, chat:pending:{roomId} / ARGV : 최대 길이, ttl, 현재시각, 최대 방 수, id, 메시지, id, 메시지...)
+    private static final RedisScript<Long> FILL = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return -1 end "
+                    + "local ids = {} "
+                    + "local messages = {} "
+                    + "for i = 5, #ARGV, 2 do "
+                    + "ids[tonumber(ARGV[i])] = true "
+                    + "table.insert(messages, {tonumber(ARGV[i]), ARGV[i + 1]}) end "
+                    + "for _, json in ipairs(redis.call('LRANGE', KEYS[3], 0, -1)) do "
+                    + "local ok, message = pcall(cjson.decode, json) "
+                    + "local id = ok and type(message) == 'table' and tonumber(message['id']) or nil "
+                    + "if id == nil then table.insert(messages, {math.huge, json}) "
+                    + "elseif not ids[id] then ids[id] = true table.insert(messages, {id, json}) end end "
+                    + "table.sort(messages, function(a, b) return a[1] < b[1] end) "
+                    + "if #messages == 0 then redis.call('RPUSH', KEYS[1], '') end "
+                    + "for _, message in ipairs(messages) do redis.call('RPUSH', KEYS[1], message[2]) end "
+                    + "redis.call('DEL', KEYS[3]) "
+                    + "redis.call('LTRIM', KEYS[1], -tonumber(ARGV[1]), -1) "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[2]) "
+                    + "redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', tonumber(ARGV[3]) - tonumber(ARGV[2])) "
+                    + "redis.call('ZADD', KEYS[2], ARGV[3], KEYS[1]) "
+                    + "local over = redis.call('ZCARD', KEYS[2]) - tonumber(ARGV[4]) "
+                    + "if over <= 0 then return 0 end "
+                    + "local evicted = redis.call('ZRANGE', KEYS[2], 0, over - 1) "
+                    + "redis.call('ZREMRANGEBYRANK', KEYS[2], 0, over - 1) "
+                    + "for _, key in ipairs(evicted) do redis.call('DEL', key) end "
+                    + "return over", Long.class);
+    // 메시지가 없는 방도 캐시가 있다고 표시하기 위한 값 (조회 결과에서는 제외, FILL 스크립트의 '')
+    private static final String EMPTY_MARKER = "";
 
     private final ChatMessageJpaRepository chatMessageJpaRepository;
-    private final RedisTemplate<String, Object> redisTemplate; // redisTemplate 사용
     private final StringRedisTemplate stringRedisTemplate; // StringRedisTemplate 사용
-    private HashOperations<String, String, String> hashOpsEnterInfo; // Redis 의 Hashes 사용
-    private HashOperations<String, String, List<ChatMessageDto>> opsHashChatMessage; // Redis 의 Hashes 사용
-    private ValueOperations<String, String> valueOps; // Redis 의 String 구조 사용
-
-    //초기화
-    @PostConstruct
-    private void init() {
-        opsHashChatMessage = redisTemplate.opsForHash();
-        hashOpsEnterInfo = redisTemplate.opsForHash();
-        valueOps = stringRedisTemplate.opsForValue();
-    }
+    private final ObjectMapper objectMapper;
+    private final int maxLength;
+    private final int maxRooms;
+    private final MeterRegistry meterRegistry;
 
-    //유저 카운트 받아오기
-    public Long getUserCnt(String roomId) {
-        return Long.valueOf(Optional.ofNullable(valueOps.get(USER_COUNT + "_" + roomId)).orElse("0"));
+    public ChatMessageRepository(ChatMessageJpaRepository chatMessageJpaRepository,
+                                 StringRedisTemplate stringRedisTemplate, ObjectMapper objectMapper,
+                                 @Value("${chat.history.max-length:1000}") int maxLength,
+                                 @Value("${chat.history.max-rooms:10000}") int maxRooms,
+                                 MeterRegistry meterRegistry) {
+        this.chatMessageJpaRepository = chatMessageJpaRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.maxLength = maxLength;
+        this.maxRooms = maxRooms;
+        this.meterRegistry = meterRegistry;
     }
 
-    //redis 에 메세지 저장하기
-    @Transactional
+    //redis 에 메세지 저장하기 (메시지 하나만 전송, 기존 목록은 읽지 않는다)
     public ChatMessageDto save(ChatMessageDto chatMessageDto) {
-        //chatMessageDto 를 redis 에 저장하기 위하여 직렬화 한다.
-        redisTemplate.setValueSerializer(new Jackson2JsonRedisSerializer<>(ChatMessage.class));
-        String roomId = chatMessageDto.getRoomId();
-        //redis에 저장되어있는 리스트를 가져와, 새로 받아온 chatmessageDto를 더하여 다시 저장한다.
-        List<ChatMessageDto> chatMessageList = opsHashChatMessage.get(CHAT_MESSAGE, roomId);
-        //가져온 List가 null일때 새로운 리스트를 만든다 == 처음에 메세지를 저장할경우 리스트가 없기때문에.
-        if (chatMessageList == null) {
-            chatMessageList = new ArrayList<>();
+        try {
+            stringRedisTemplate.execute(APPEND,
+                    Arrays.asList(CHAT_KEY + chatMessageDto.getRoomId(), RESIDENT_KEY, PENDING_KEY + chatMessageDto.getRoomId()),
+                    String.valueOf(maxLength), String.valueOf(TTL_MILLIS), objectMapper.writeValueAsString(chatMessageDto),
+                    String.valueOf(System.currentTimeMillis()), String.valueOf(PENDING_TTL_MILLIS));
+        } catch (Exception e) {
+            // 캐시에 못 넣으면 다음 조회때 DB 에서 다시 채운다.
+            log.error("채팅 메시지 캐시 저장 실패 : {}", e.getMessage());
+            stringRedisTemplate.delete(CHAT_KEY + chatMessageDto.getRoomId());
         }
-        chatMessageList.add(chatMessageDto);
-        //redis 의 hashes 자료구조
-        //key : CHAT_MESSAGE , filed : roomId, value : chatMessageList
-        opsHashChatMessage.put(CHAT_MESSAGE, roomId, chatMessageList);
-        redisTemplate.expire(CHAT_MESSAGE,24, TimeUnit.HOURS);
         return chatMessageDto;
     }
 
     //채팅 리스트 가져오기
-    @Transactional
+    @Transactional(readOnly = true)
     public List<ChatMessageDto> findAllMessage(String roomId) {
+        return findMessages(roomId, 0, -1);
+    }
+
+    // 캐시된 최근 메시지 중 [start, end] 범위 (LRANGE 인덱스, 음수는 뒤에서부터)
+    @Transactional(readOnly = true)
+    public List<ChatMessageDto> findMessages(String roomId, long start, long end) {
+        List<String> cached = read(roomId, start, end);
+        if (cached.isEmpty()) {
+            int loaded = fill(roomId);
+            countAccess("miss", loaded);
+            cached = read(roomId, start, end);
+            if (cached.isEmpty()) {
+                return new ArrayList<>();
+            }
+        } else {
+            countAccess("hit", Integer.parseInt(cached.get(0)));
+        }
         List<ChatMessageDto> chatMessageDtoList = new ArrayList<>();
-        //chatMessage 리스트를 불러올때, 리스트의 사이즈가 0보다 크면 redis 정보를 가져온다
-        //redis 에서 가져온 리스트의 사이즈가  0보다 크다 == 저장된 정보가 있다.
-        if (opsHashChatMessage.size(CHAT_MESSAGE) > 0) {
-            return (opsHashChatMessage.get(CHAT_MESSAGE, roomId));
-        } else { // redis 에서 가져온 메세지 리스트의 사이즈가 0보다 작다 == redis에 정보가 없다.
-            List<ChatMessage> chatMessages = chatMessageJpaRepository.findAllByRoomId(roomId);
-
-            for (ChatMessage chatMessage : chatMessages) {
-                LocalDateTime createdAt = chatMessage.getCreatedAt();
-                String createdAtString = createdAt.format(DateTimeFormatter.ofPattern("dd,MM,yyyy,HH,mm,ss", Locale.KOREA));
-                ChatMessageDto chatMessageDto = new ChatMessageDto(chatMessage,createdAtString);
-                chatMessageDtoList.add(chatMessageDto);
+        for (String json : cached.subList(1, cached.size())) {
+            if (EMPTY_MARKER.equals(json)) {
+                continue;
+            }
+            try {
+                chatMessageDtoList.add(objectMapper.readValue(json, ChatMessageDto.class));
+            } catch (JsonProcessingException e) {
+                log.error("채팅 메시지 캐시 변환 실패 : {}", e.getMessage());
+            }
+        }
+        return chatMessageDtoList;
+    }
+
+    // 캐시가 있으면 [길이, 메시지...], 없으면 빈 목록
+    @SuppressWarnings("unchecked")
+    private List<String> read(String roomId, long start, long end) {
+        List<String> cached = stringRedisTemplate.execute(READ, Arrays.asList(CHAT_KEY + roomId, RESIDENT_KEY),
+                String.valueOf(start), String.valueOf(end), String.valueOf(TTL_MILLIS),
+                String.valueOf(System.currentTimeMillis()));
+        return cached == null ? Collections.<String>emptyList() : cached;
+    }
+
+    // 방 분류 : full (이전 메시지가 DB 에만 남아 있는 방), partial (전체 메시지가 캐시에 있는 방)
+    private void countAccess(String result, int size) {
+        meterRegistry.counter("chat.history.cache", "result", result,
+                "room", size >= maxLength ? "full" : "partial").increment();
+    }
+
+    // 이전 메시지 페이지 : 첫 페이지는 캐시 끝에서, 그 이전 페이지는 DB (room_id, id 인덱스) 에서 읽는다.
+    @Transactional(readOnly = true)
+    public ChatMessagePageDto findMessagePage(String roomId, Long cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxLength));
+        if (cursor == null) {
+            List<ChatMessageDto> cached = findMessages(roomId, -pageSize, -1);
+            // id 가 없는 예전 형식 캐시가 섞여 있으면 DB 에서 읽는다.
+            if (hasIds(cached)) {
+                // 캐시에는 최근 maxLength 개까지 있으므로, 한 페이지를 못 채우면 더 이전 메시지는 없다.
+                return new ChatMessagePageDto(cached, cached.size() < pageSize ? null : minId(cached));
             }
-            //redis에 정보가 없으니, 다음부터 조회할때는 redis를 사용하기 위하여 넣어준다.
-            opsHashChatMessage.put(CHAT_MESSAGE, roomId, chatMessageDtoList);
-            return chatMessageDtoList;
         }
+        List<ChatMessage> chatMessages = cursor == null
+                ? chatMessageJpaRepository.findByRoomIdOrderByIdDesc(roomId, PageRequest.of(0, pageSize))
+                : chatMessageJpaRepository.findByRoomIdAndIdLessThanOrderByIdDesc(roomId, cursor, PageRequest.of(0, pageSize));
+        List<ChatMessageDto> chatMessageDtoList = new ArrayList<>();
+        for (int i = chatMessages.size() - 1; i >= 0; i--) {
+            chatMessageDtoList.add(toDto(chatMessages.get(i)));
+        }
+        return new ChatMessagePageDto(chatMessageDtoList, chatMessages.size() < pageSize ? null : minId(chatMessageDtoList));
     }
 
-    // 구독 요청시
-    public void setUserEnterInfo(String roomId, String sessionId) {
-        hashOpsEnterInfo.put(ENTER_INFO, sessionId, roomId);
+    private boolean hasIds(List<ChatMessageDto> chatMessageDtoList) {
+        for (ChatMessageDto chatMessageDto : chatMessageDtoList) {
+            if (chatMessageDto.getId() == null) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    // 구독시 유저 카운트 증가
-    public void plusUserCnt(String roomId) {
-        valueOps.increment(USER_COUNT + "_" + roomId); // redis string type에서 사용하는 increment 함수, 유저 카운트 증가
+    // 동시에 보낸 메시지는 캐시 순서와 id 순서가 다를 수 있어 가장 작은 id 를 커서로 쓴다.
+    private Long minId(List<ChatMessageDto> chatMessageDtoList) {
+        Long min = null;
+        for (ChatMessageDto chatMessageDto : chatMessageDtoList) {
+            if (min == null || chatMessageDto.getId() < min) {
+                min = chatMessageDto.getId();
+            }
+        }
+        return min;
     }
 
-    // unsubscribe 시 유저 카운트 감소
-    public void minusUserCnt(String roomId) {
-        Optional.ofNullable(valueOps.decrement(USER_COUNT + "_" + roomId)).filter(count -> count > 0);
+    private ChatMessageDto toDto(ChatMessage chatMessage) {
+        return new ChatMessageDto(chatMessage, chatMessage.getCreatedAt().format(CREATED_AT_FORMAT));
     }
 
-    public void removeUserEnterInfo(String sessionId, String roomId) {
-        hashOpsEnterInfo.delete(ENTER_INFO, sessionId, roomId);
+    // redis에 정보가 없으니, DB 의 최근 메시지(+ 아직 DB 에 없는 pending 메시지)로 채운다. 읽은 메시지 수 반환
+    private int fill(String roomId) {
+        List<ChatMessage> chatMessages = chatMessageJpaRepository.findByRoomIdOrderByIdDesc(roomId, PageRequest.of(0, maxLength));
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(maxLength));
+        args.add(String.valueOf(TTL_MILLIS));
+        args.add(String.valueOf(System.currentTimeMillis()));
+        args.add(String.valueOf(maxRooms));
+        try {
+            for (int i = chatMessages.size() - 1; i >= 0; i--) {
+                args.add(String.valueOf(chatMessages.get(i).getId()));
+                args.add(objectMapper.writeValueAsString(toDto(chatMessages.get(i))));
+            }
+            Long evicted = stringRedisTemplate.execute(FILL,
+                    Arrays.asList(CHAT_KEY + roomId, RESIDENT_KEY, PENDING_KEY + roomId), args.toArray());
+            if (evicted != null && evicted > 0) {
+                meterRegistry.counter("chat.history.cache.evicted").increment(evicted);
+            }
+        } catch (Exception e) {
+            log.error("채팅 메시지 캐시 생성 실패 : {}", e.getMessage());
+        }
+        return chatMessages.size();
     }
 
 }
@@ -0,0 +1,164 @@
+package com.sparta.meeting_platform.chat.repository;
+
+import com.sparta.meeting_platform.util.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * 채팅방 참여자 (메시지마다 안 읽은 알림 대상을 DB 에서 읽지 않기 위해)
+ * - room:members:{roomId} (HASH) : userId -> "1" (채팅방 안) / "0" (채팅방 밖), invited_users 의 (user_id, read_check)
+ * - 없으면 메시지 발행때 DB(+ 아직 반영 안 된 입장/퇴장)로 채우고 TTL_MILLIS 뒤 지운다.
+ *   참여/나가기/입장/퇴장은 key 가 있을 때만 갱신하므로, 채우는 사이에 바뀐 것은 TTL 안에서만 늦게 반영된다.
+ * - 채팅방 종료시 지운다.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ChatRoomMemberRepository {
+    private static final String MEMBERS_KEY = "room:members:";
+    private static final String IN_ROOM = "1";
+    private static final String AWAY = "0";
+    private static final String EMPTY_MARKER = "-"; // 참여자가 없는 방도 채웠다고 표시
+    private static final long TTL_MILLIS = 10 * 60 * 1000L;
+
+    // 채울 때만 (ARGV : ttl, userId, readCheck, userId, readCheck ...)
+    private static final RedisScript<Long> FILL = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end "
+                    + "redis.call('HSET', KEYS[1], '" + EMPTY_MARKER + "', '') "
+                    + "for i = 2, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[1]) "
+                    + "return 1", Long.class);
+    // 새 참여자, 이미 입장 표시가 있으면 유지 (ARGV : userId)
+    private static final RedisScript<Long> JOIN = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+                    + "return redis.call('HSETNX', KEYS[1], ARGV[1], '" + AWAY + "')", Long.class);
+    // 입장 : 참여하면서 입장하는 경우도 있어 key 만 확인 (ARGV : userId)
+    private static final String ENTER =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+                    + "return redis.call('HSET', KEYS[1], ARGV[1], '" + IN_ROOM + "')";
+    // 퇴장 : 참여자일 때만 (게시글 상세 조회는 참여하지 않은 유저도 호출) (ARGV : userId)
+    private static final String AWAY_SCRIPT =
+            "if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 0 then return 0 end "
+                    + "return redis.call('HSET', KEYS[1], ARGV[1], '" + AWAY + "')";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    // userId, 채팅방 안에 있는지 (없으면 null)
+    public Map<Long, Boolean> findMembers(String roomId) {
+        try {
+            Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(MEMBERS_KEY + roomId);
+            if (fields.isEmpty()) {
+                return null;
+            }
+            Map<Long, Boolean> readChecks = new LinkedHashMap<>();
+            for (Map.Entry<Object, Object> field : fields.entrySet()) {
+                if (!EMPTY_MARKER.equals(field.getKey())) {
+                    readChecks.put(Long.valueOf((String) field.getKey()), IN_ROOM.equals(field.getValue()));
+                }
+            }
+            return readChecks;
+        } catch (Exception e) {
+            log.error("채팅방 참여자 조회 실패 : {} {}", roomId, e.getMessage());
+            return null;
+        }
+    }
+
+    public void putMembers(String roomId, Map<Long, Boolean> readChecks) {
+        Object[] args = new String[1 + readChecks.size() * 2];
+        args[0] = String.valueOf(TTL_MILLIS);
+        int i = 1;
+        for (Map.Entry<Long, Boolean> readCheck : readChecks.entrySet()) {
+            args[i++] = String.valueOf(readCheck.getKey());
+            args[i++] = Boolean.TRUE.equals(readCheck.getValue()) ? IN_ROOM : AWAY;
+        }
+        try {
+            stringRedisTemplate.execute(FILL, Collections.singletonList(MEMBERS_KEY + roomId), args);
+        } catch (Exception e) {
+            log.error("채팅방 참여자 저장 실패 : {} {}", roomId, e.getMessage());
+        }
+    }
+
+    // 채팅방 참여 (트랜잭션 커밋 이후)
+    public void join(Long userId, String roomId) {
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                stringRedisTemplate.execute(JOIN, Collections.singletonList(MEMBERS_KEY + roomId), String.valueOf(userId));
+            } catch (Exception e) {
+                // 반영하지 못하면 다시 채울 수 있게 지운다.
+                log.error("채팅방 참여자 추가 실패 : {}", e.getMessage());
+                delete(roomId);
+            }
+        });
+    }
+
+    // 채팅방 나가기 (트랜잭션 커밋 이후)
+    public void leave(Long userId, Collection<String> roomIds) {
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+                    for (String roomId : roomIds) {
+                        stringRedisConnection.hDel(MEMBERS_KEY + roomId, String.valueOf(userId));
+                    }
+                    return null;
+                });
+            } catch (Exception e) {
+                log.error("채팅방 참여자 삭제 실패 : {}", e.getMessage());
+            }
+        });
+    }
+
+    public void enter(Long userId, String roomId) {
+        updateReadCheck(userId, Collections.singletonList(roomId), ENTER);
+    }
+
+    public void away(Long userId, Collection<String> roomIds) {
+        updateReadCheck(userId, roomIds, AWAY_SCRIPT);
+    }
+
+    // 채팅방 종료 (트랜잭션 커밋 이후)
+    public void removeRoom(String roomId) {
+        TransactionCallbacks.afterCommit(() -> delete(roomId));
+    }
+
+    private void updateReadCheck(Long userId, Collection<String> roomIds, String script) {
+        if (roomIds.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+                for (String roomId : roomIds) {
+                    stringRedisConnection.eval(script, ReturnType.INTEGER, 1, MEMBERS_KEY + roomId, String.valueOf(userId));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // 반영하지 못하면 다시 채울 수 있게 지운다.
+            log.error("채팅방 참여자 입장/퇴장 저장 실패 : {}", e.getMessage());
+            for (String roomId : roomIds) {
+                delete(roomId);
+            }
+        }
+    }
+
+    private void delete(String roomId) {
+        try {
+            stringRedisTemplate.delete(MEMBERS_KEY + roomId);
+        } catch (Exception e) {
+            log.error("채팅방 참여자 삭제 실패 : {}", e.getMessage());
+        }
+    }
+}
@@ -6,105 +6,123 @@ import com.sparta.meeting_platform.chat.dto.UserDto;
 import com.sparta.meeting_platform.chat.model.ChatMessage;
 import com.sparta.meeting_platform.chat.model.ChatRoom;
 import com.sparta.meeting_platform.chat.model.InvitedUsers;
-import com.sparta.meeting_platform.chat.service.RedisSubscriber;
+import com.sparta.meeting_platform.chat.service.ReadReceiptService;
 import com.sparta.meeting_platform.domain.Post;
 import com.sparta.meeting_platform.domain.User;
-import com.sparta.meeting_platform.exception.PostApiException;
 import com.sparta.meeting_platform.repository.PostRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.data.redis.listener.ChannelTopic;
-import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.PostConstruct;
-import java.time.LocalDateTime;
+import java.sql.Timestamp;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 
 @RequiredArgsConstructor
 @Repository
 public class ChatRoomRepository {
-    // 채팅방(topic)에 발행되는 메시지를 처리할 Listner
-    private final RedisMessageListenerContainer redisMessageListener;
-    // 구독 처리 서비스
-    private final RedisSubscriber redisSubscriber;
+    // 채팅방 메시지 채널 이름 : chat.room.{roomId} (RedisSubscriber 가 chat.room.* 로 한번에 구독)
+    public static final String TOPIC_PREFIX = "chat.room.";
     private final ChatRoomJpaRepository chatRoomJpaRepository;
     private final PostRepository postRepository;
     private final InvitedUsersRepository invitedUsersRepository;
     private final ChatMessageJpaRepository chatMessageJpaRepository;
-    private final StringRedisTemplate stringRedisTemplate; // StringRedisTemplate 사용
+    private final ChatRoomSummaryRepository chatRoomSummaryRepository;
+    private final UnreadRepository unreadRepository;
+    private final ReadReceiptService readReceiptService;
     private static final String CHAT_ROOMS = "CHAT_ROOM";
     private final RedisTemplate<String, Object> redisTemplate;
     private HashOperations<String, String, ChatRoom> opsHashChatRoom;
-    private static ValueOperations<String, String> topics;
 
     @PostConstruct
     private void init() {
         opsHashChatRoom = redisTemplate.opsForHash();
-        topics = stringRedisTemplate.opsForValue();
     }
 
-    //내가 참여한 모든 채팅방 목록 조회
-    @Transactional
+    //내가 참여한 모든 채팅방 목록 조회 (마지막 메시지 순)
+    // rooms:{userId}, room:summary:{roomId} 에서 읽고, 없는 것만 DB 에서 채운다.
+    @Transactional(readOnly = true)
     public ChatListMessageDto findAllRoom(User user) {
-        List<InvitedUsers> invitedUsers = invitedUsersRepository.findAllByUserId(user.getId());
+        List<String> roomIds = chatRoomSummaryRepository.findRoomIds(user.getId());
+        if (roomIds == null) {
+            roomIds = loadRoomIds(user.getId());
+        }
+        readReceiptService.away(user.getId(), roomIds); // 참여한 모든 채팅방 밖
+        List<Map<String, String>> summaries = chatRoomSummaryRepository.findSummaries(roomIds);
+        Map<String, Long> unreadCounts = unreadRepository.getCounts(user.getId());
+        List<String> removedRoomIds = new ArrayList<>();
         List<ChatRoomResponseDto> chatRoomResponseDtoList = new ArrayList<>();
-        for (InvitedUsers invitedUser : invitedUsers) {
-            if (invitedUser.getReadCheck()) {
-                invitedUser.setReadCheck(false);
-                invitedUser.setReadCheckTime(LocalDateTime.now());
+        for (int i = 0; i < roomIds.size(); i++) {
+            String roomId = roomIds.get(i);
+            Map<String, String> summary = summaries.get(i);
+            if (summary.isEmpty()) {
+                summary = loadSummary(roomId);
+                if (summary == null) { // 종료된 채팅방
+                    removedRoomIds.add(roomId);
+                    continue;
+                }
             }
-            Post post = postRepository.findById(invitedUser.getPostId()).orElseThrow(
-                    () -> new PostApiException("해당 게시글을 찾을 수 없습니다."));
-            ChatMessage chatMessage = chatMessageJpaRepository.findTop1ByRoomIdOrderByCreatedAtDesc(invitedUser.getPostId().toString());
             ChatRoomResponseDto chatRoomResponseDto = new ChatRoomResponseDto();
-            if (chatMessage.getMessage().isEmpty()) {
+            String lastMessage = summary.get(ChatRoomSummaryRepository.LAST_MESSAGE);
+            if (lastMessage != null && lastMessage.isEmpty()) { // 메시지가 아직 없으면 null
                 chatRoomResponseDto.setLastMessage("파일이 왔어요😲");
             } else {
-                chatRoomResponseDto.setLastMessage(chatMessage.getMessage());
-            }
-            LocalDateTime createdAt = chatMessage.getCreatedAt();
-            String createdAtString = createdAt.format(DateTimeFormatter.ofPattern("dd,MM,yyyy,HH,mm,ss", Locale.KOREA));
-
-            chatRoomResponseDto.setLastMessageTime(createdAtString);
-            chatRoomResponseDto.setPostTime(post.getTime());
-            chatRoomResponseDto.setPostTitle(post.getTitle());
-            if (post.getPostUrls().isEmpty()) {
-                chatRoomResponseDto.setPostUrl(null);
-            } else {
-                chatRoomResponseDto.setPostUrl(post.getPostUrls().get(0));
+                chatRoomResponseDto.setLastMessage(lastMessage);
             }
-            chatRoomResponseDto.setLetter(post.getIsLetter());
-            chatRoomResponseDto.setPostId(post.getId());
+            chatRoomResponseDto.setLastMessageTime(summary.get(ChatRoomSummaryRepository.LAST_MESSAGE_TIME));
+            chatRoomResponseDto.setPostTime(summary.get(ChatRoomSummaryRepository.POST_TIME));
+            chatRoomResponseDto.setPostTitle(summary.get(ChatRoomSummaryRepository.TITLE));
+            String postUrl = summary.get(ChatRoomSummaryRepository.POST_URL);
+            chatRoomResponseDto.setPostUrl(postUrl == null || postUrl.isEmpty() ? null : postUrl);
+            chatRoomResponseDto.setLetter(Boolean.parseBoolean(summary.get(ChatRoomSummaryRepository.IS_LETTER)));
+            chatRoomResponseDto.setPostId(Long.parseLong(roomId));
+            chatRoomResponseDto.setUnreadCount(unreadCounts.getOrDefault(roomId, 0L));
             chatRoomResponseDtoList.add(chatRoomResponseDto);
-
         }
+        chatRoomSummaryRepository.removeRooms(user.getId(), removedRoomIds);
         return new ChatListMessageDto(chatRoomResponseDtoList, user.getIsOwner());
     }
 
-    /**
-     * 채팅방 입장 : redis에 topic을 만들고 pub/sub 통신을 하기 위해 리스너를 설정한다.
-     */
-    public void enterChatRoom(String roomId) {
-        if (topics.get(roomId) == null) {
-            ChannelTopic topic = new ChannelTopic(roomId);
-            redisMessageListener.addMessageListener(redisSubscriber, topic);
-            topics.set(roomId, topic.toString());
-            redisTemplate.expire(roomId, 48, TimeUnit.HOURS);
-        } else {
-            String topicToString = topics.get(roomId);
-            ChannelTopic topic = new ChannelTopic(topicToString);
-            redisMessageListener.addMessageListener(redisSubscriber, topic);
+    // 참여한 채팅방 목록을 DB 에서 만들어 저장 (score : 마지막 메시지 시각)
+    private List<String> loadRoomIds(Long userId) {
+        Map<String, Long> scores = new HashMap<>();
+        for (InvitedUsers invitedUser : invitedUsersRepository.findAllByUserId(userId)) {
+            String roomId = invitedUser.getPostId().toString();
+            ChatMessage chatMessage = chatMessageJpaRepository.findTop1ByRoomIdOrderByCreatedAtDesc(roomId);
+            scores.put(roomId, chatMessage == null ? 0L : Timestamp.valueOf(chatMessage.getCreatedAt()).getTime());
+        }
+        chatRoomSummaryRepository.putRooms(userId, scores);
+        List<String> roomIds = new ArrayList<>(scores.keySet());
+        roomIds.sort(Comparator.comparing(scores::get, Comparator.reverseOrder()));
+        return roomIds;
+    }
+
+    // 채팅방 요약을 DB 에서 만들어 저장, 게시글이 없으면 null
+    private Map<String, String> loadSummary(String roomId) {
+        Post post = postRepository.findById(Long.parseLong(roomId)).orElse(null);
+        if (post == null) {
+            return null;
+        }
+        Map<String, String> summary = ChatRoomSummaryRepository.toFields(post);
+        ChatMessage chatMessage = chatMessageJpaRepository.findTop1ByRoomIdOrderByCreatedAtDesc(roomId);
+        if (chatMessage != null) {
+            summary.put(ChatRoomSummaryRepository.LAST_MESSAGE, chatMessage.getMessage() == null ? "" : chatMessage.getMessage());
+            summary.put(ChatRoomSummaryRepository.LAST_MESSAGE_TIME,
+                    chatMessage.getCreatedAt().format(DateTimeFormatter.ofPattern("dd,MM,yyyy,HH,mm,ss", Locale.KOREA)));
         }
+        chatRoomSummaryRepository.putSummary(roomId, summary);
+        return summary;
     }
 
     /*
@@ -116,10 +134,10 @@ public class ChatRoomRepository {
         opsHashChatRoom.put(CHAT_ROOMS, chatRoom.getRoomId(), chatRoom); // redis 저장
         redisTemplate.expire(CHAT_ROOMS, 48, TimeUnit.HOURS);
         chatRoomJpaRepository.save(chatRoom); // DB 저장
+        chatRoomSummaryRepository.putPost(post); // 채팅 목록 요약
     }
 
     public static ChannelTopic getTopic(String roomId) {
-        String topicToString = topics.get(roomId);
-        return new ChannelTopic(topicToString);
+        return new ChannelTopic(TOPIC_PREFIX + roomId);
     }
 }
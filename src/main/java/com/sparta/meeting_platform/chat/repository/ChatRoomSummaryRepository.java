@@ -0,0 +1,197 @@
+package com.sparta.meeting_platform.chat.repository;
+
+import com.sparta.meeting_platform.domain.Post;
+import com.sparta.meeting_platform.util.PostTimeFormatter;
+import com.sparta.meeting_platform.util.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * 채팅 탭 채팅방 목록
+ * - room:summary:{roomId} (HASH) : 게시글 제목, 첫 이미지, 약속시간, 번개 여부, 마지막 메시지와 시간
+ * - rooms:{userId} (ZSET) : 참여한 채팅방 (score : 마지막 메시지 시각)
+ * 메시지 발행, 게시글 생성/수정, 채팅방 참여/나가기 때 갱신한다.
+ * 없는 key 는 ChatRoomRepository.findAllRoom 에서 DB 로 채우므로, 여기서는 있는 key 만 갱신한다.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ChatRoomSummaryRepository {
+    private static final String SUMMARY_KEY = "room:summary:";
+    private static final String ROOMS_KEY = "rooms:";
+
+    public static final String TITLE = "title";
+    public static final String POST_URL = "postUrl";
+    public static final String POST_TIME = "postTime";
+    public static final String IS_LETTER = "isLetter";
+    public static final String LAST_MESSAGE = "lastMessage";
+    public static final String LAST_MESSAGE_TIME = "lastMessageTime";
+
+    // KEYS : 요약, 참여자마다 rooms:{userId} / ARGV : 마지막 메시지, 시간, score, roomId
+    private static final RedisScript<Long> MESSAGE = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then "
+                    + "redis.call('HSET', KEYS[1], 'lastMessage', ARGV[1], 'lastMessageTime', ARGV[2]) end "
+                    + "for i = 2, #KEYS do "
+                    + "if redis.call('EXISTS', KEYS[i]) == 1 then redis.call('ZADD', KEYS[i], ARGV[3], ARGV[4]) end "
+                    + "end "
+                    + "return 1", Long.class);
+    // 요약이 있을 때만 게시글 정보 갱신 (ARGV : 제목, 첫 이미지, 약속시간, 번개 여부)
+    private static final RedisScript<Long> UPDATE_POST = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+                    + "redis.call('HSET', KEYS[1], 'title', ARGV[1], 'postUrl', ARGV[2], 'postTime', ARGV[3], 'isLetter', ARGV[4]) "
+                    + "return 1", Long.class);
+    // 이미 만든 목록에만 추가
+    private static final RedisScript<Long> JOIN = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+                    + "return redis.call('ZADD', KEYS[1], ARGV[1], ARGV[2])", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    // 게시글 생성 (트랜잭션 커밋 이후)
+    public void putPost(Post post) {
+        Map<String, String> fields = toFields(post);
+        String key = SUMMARY_KEY + post.getId();
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                stringRedisTemplate.opsForHash().putAll(key, fields);
+            } catch (Exception e) {
+                log.error("채팅방 요약 저장 실패 : {}", e.getMessage());
+            }
+        });
+    }
+
+    // 게시글 수정 (트랜잭션 커밋 이후), 요약이 없으면 다음 조회때 DB 에서 만든다.
+    public void updatePost(Post post) {
+        Map<String, String> fields = toFields(post);
+        String key = SUMMARY_KEY + post.getId();
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                stringRedisTemplate.execute(UPDATE_POST, Collections.singletonList(key),
+                        fields.get(TITLE), fields.get(POST_URL), fields.get(POST_TIME), fields.get(IS_LETTER));
+            } catch (Exception e) {
+                log.error("채팅방 요약 저장 실패 : {}", e.getMessage());
+            }
+        });
+    }
+
+    public static Map<String, String> toFields(Post post) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(TITLE, post.getTitle());
+        fields.put(POST_URL, post.getPostUrls().isEmpty() ? "" : post.getPostUrls().get(0));
+        fields.put(POST_TIME, PostTimeFormatter.format(post.getTime()));
+        fields.put(IS_LETTER, String.valueOf(Boolean.TRUE.equals(post.getIsLetter())));
+        return fields;
+    }
+
+    // 메시지 발행 : 마지막 메시지 갱신, 참여자 목록에서 맨 앞으로
+    public void putMessage(String roomId, Collection<Long> memberIds, String lastMessage, String lastMessageTime, long score) {
+        try {
+            List<String> keys = new ArrayList<>();
+            keys.add(SUMMARY_KEY + roomId);
+            for (Long memberId : memberIds) {
+                keys.add(ROOMS_KEY + memberId);
+            }
+            stringRedisTemplate.execute(MESSAGE, keys, lastMessage, lastMessageTime, String.valueOf(score), roomId);
+        } catch (Exception e) {
+            log.error("채팅방 마지막 메시지 저장 실패 : {}", e.getMessage());
+        }
+    }
+
+    // 채팅방 참여 (트랜잭션 커밋 이후)
+    public void join(Long userId, String roomId) {
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                stringRedisTemplate.execute(JOIN, Collections.singletonList(ROOMS_KEY + userId),
+                        String.valueOf(System.currentTimeMillis()), roomId);
+            } catch (Exception e) {
+                log.error("채팅방 목록 추가 실패 : {}", e.getMessage());
+            }
+        });
+    }
+
+    // 채팅방 나가기 (트랜잭션 커밋 이후)
+    public void leave(Long userId, String roomId) {
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                stringRedisTemplate.opsForZSet().remove(ROOMS_KEY + userId, roomId);
+            } catch (Exception e) {
+                log.error("채팅방 목록 삭제 실패 : {}", e.getMessage());
+            }
+        });
+    }
+
+    // 채팅방 종료 (트랜잭션 커밋 이후, 롤백되면 요약을 남긴다)
+    public void removeRoom(String roomId) {
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                stringRedisTemplate.delete(SUMMARY_KEY + roomId);
+            } catch (Exception e) {
+                log.error("채팅방 요약 삭제 실패 : {}", e.getMessage());
+            }
+        });
+    }
+
+    // 마지막 메시지 순 roomId, 목록이 없으면 null
+    public List<String> findRoomIds(Long userId) {
+        Set<String> roomIds = stringRedisTemplate.opsForZSet().reverseRange(ROOMS_KEY + userId, 0, -1);
+        if (roomIds == null || roomIds.isEmpty()) {
+            return null;
+        }
+        return new ArrayList<>(roomIds);
+    }
+
+    // 목록 전체 저장 (roomId, score)
+    public void putRooms(Long userId, Map<String, Long> scores) {
+        if (scores.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            for (Map.Entry<String, Long> entry : scores.entrySet()) {
+                stringRedisConnection.zAdd(ROOMS_KEY + userId, entry.getValue(), entry.getKey());
+            }
+            return null;
+        });
+    }
+
+    public void removeRooms(Long userId, Collection<String> roomIds) {
+        if (!roomIds.isEmpty()) {
+            stringRedisTemplate.opsForZSet().remove(ROOMS_KEY + userId, roomIds.toArray());
+        }
+    }
+
+    // 방마다 요약 (없으면 빈 map), roomIds 와 같은 순서
+    @SuppressWarnings("unchecked")
+    public List<Map<String, String>> findSummaries(List<String> roomIds) {
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            for (String roomId : roomIds) {
+                stringRedisConnection.hGetAll(SUMMARY_KEY + roomId);
+            }
+            return null;
+        });
+        List<Map<String, String>> summaries = new ArrayList<>();
+        for (Object result : results) {
+            summaries.add(result == null ? new HashMap<>() : (Map<String, String>) result);
+        }
+        return summaries;
+    }
+
+    public void putSummary(String roomId, Map<String, String> fields) {
+        stringRedisTemplate.opsForHash().putAll(SUMMARY_KEY + roomId, fields);
+    }
+}
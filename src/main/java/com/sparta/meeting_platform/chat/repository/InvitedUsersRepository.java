@@ -4,6 +4,8 @@ import com.sparta.meeting_platform.chat.model.InvitedUsers;
 import com.sparta.meeting_platform.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import javax.persistence.LockModeType;
 import java.util.List;
@@ -11,7 +13,7 @@ import java.util.List;
 public interface InvitedUsersRepository extends JpaRepository<InvitedUsers, Long> {
 
 
-    void deleteByUserIdAndPostId(Long userId, Long postId);
+    long deleteByUserIdAndPostId(Long userId, Long postId);
     boolean existsByUserIdAndPostId(Long user_id, Long postId);
     List<InvitedUsers> findAllByUserId(Long userId);
     void deleteAllByPostId(Long postId);
@@ -21,4 +23,8 @@ public interface InvitedUsersRepository extends JpaRepository<InvitedUsers, Long
     List<InvitedUsers> findAllByUserIdAndReadCheck(Long userId, Boolean readCheck);
     int countByPostId(Long postId);
     boolean existsByPostId(Long id);
+
+    // 참여자 id, 채팅방 안에 있는지 (readCheck = false 면 안 읽은 알림 대상, ReadReceiptService.overlay 로 보정)
+    @Query("SELECT i.user.id, i.readCheck FROM InvitedUsers i WHERE i.postId = :postId")
+    List<Object[]> findMembers(@Param("postId") Long postId);
 }
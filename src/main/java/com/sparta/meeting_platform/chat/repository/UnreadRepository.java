@@ -0,0 +1,116 @@
+package com.sparta.meeting_platform.chat.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.meeting_platform.chat.dto.NotificationDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 안 읽은 채팅 알림 (유저별)
+ * - unread:{userId} (HASH) : roomId -> 안 읽은 메시지 수
+ * - unread:{userId}:{roomId} (LIST) : 안 읽은 최근 메시지 (NotificationDto JSON, 최근 MAX_BUFFER 개)
+ * 메시지 발행시 채팅방 밖에 있는 참여자(readCheck = false)에게 더하고, 채팅방에 입장하면 지운다.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class UnreadRepository {
+    private static final String UNREAD_KEY = "unread:";
+    private static final int MAX_BUFFER = 20;
+    private static final long TTL_SECONDS = 7 * 24 * 60 * 60L;
+
+    // KEYS : 유저마다 (HASH, LIST) 한 쌍 / ARGV : roomId, 메시지, 최대 개수, ttl
+    private static final RedisScript<Long> ADD = new DefaultRedisScript<>(
+            "for i = 1, #KEYS, 2 do "
+                    + "redis.call('HINCRBY', KEYS[i], ARGV[1], 1) "
+                    + "redis.call('EXPIRE', KEYS[i], ARGV[4]) "
+                    + "redis.call('LPUSH', KEYS[i + 1], ARGV[2]) "
+                    + "redis.call('LTRIM', KEYS[i + 1], 0, tonumber(ARGV[3]) - 1) "
+                    + "redis.call('EXPIRE', KEYS[i + 1], ARGV[4]) "
+                    + "end "
+                    + "return #KEYS / 2", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    // 받는 사람마다 안 읽은 수 +1, 최근 메시지 추가 (한번에 처리)
+    public void add(Collection<Long> userIds, String roomId, NotificationDto notificationDto) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        try {
+            List<String> keys = new ArrayList<>();
+            for (Long userId : userIds) {
+                keys.add(UNREAD_KEY + userId);
+                keys.add(UNREAD_KEY + userId + ":" + roomId);
+            }
+            stringRedisTemplate.execute(ADD, keys, roomId, objectMapper.writeValueAsString(notificationDto),
+                    String.valueOf(MAX_BUFFER), String.valueOf(TTL_SECONDS));
+        } catch (Exception e) {
+            log.error("안 읽은 알림 저장 실패 : {}", e.getMessage());
+        }
+    }
+
+    // roomId -> 안 읽은 수
+    public Map<String, Long> getCounts(Long userId) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Map.Entry<Object, Object> entry : stringRedisTemplate.opsForHash().entries(UNREAD_KEY + userId).entrySet()) {
+            counts.put((String) entry.getKey(), Long.valueOf((String) entry.getValue()));
+        }
+        return counts;
+    }
+
+    // 방마다 안 읽은 최근 메시지 (최신순), roomIds 와 같은 순서
+    public List<List<NotificationDto>> getLatest(Long userId, List<String> roomIds) {
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+            for (String roomId : roomIds) {
+                stringRedisConnection.lRange(UNREAD_KEY + userId + ":" + roomId, 0, -1);
+            }
+            return null;
+        });
+        List<List<NotificationDto>> latest = new ArrayList<>();
+        for (Object result : results) {
+            List<NotificationDto> notificationDtoList = new ArrayList<>();
+            for (Object json : (List<?>) result) {
+                try {
+                    notificationDtoList.add(objectMapper.readValue((String) json, NotificationDto.class));
+                } catch (JsonProcessingException e) {
+                    log.error("안 읽은 알림 변환 실패 : {}", e.getMessage());
+                }
+            }
+            latest.add(notificationDtoList);
+        }
+        return latest;
+    }
+
+    // 읽음 처리
+    public void clear(Long userId, String roomId) {
+        try {
+            stringRedisTemplate.opsForHash().delete(UNREAD_KEY + userId, roomId);
+            stringRedisTemplate.delete(UNREAD_KEY + userId + ":" + roomId);
+        } catch (Exception e) {
+            log.error("안 읽은 알림 삭제 실패 : {}", e.getMessage());
+        }
+    }
+
+    // 없어진 채팅방 정리
+    public void clear(Long userId, Collection<String> roomIds) {
+        for (String roomId : roomIds) {
+            clear(userId, roomId);
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package com.sparta.meeting_platform.chat.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.meeting_platform.chat.model.ChatMessage;
+import com.sparta.meeting_platform.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * 채팅 메시지 DB 저장 (write-behind)
+ * - 메시지 id 는 Redis chat:seq 로 보낸 순서대로 먼저 정하고, 발행 후 큐에 넣으면 chat-writer 스레드가 모아서 JDBC batch insert 한다.
+ *   id 를 미리 정하므로 insert 되는 순서와 상관없이 방별 메시지 순서(id 순)는 보낸 순서와 같다.
+ * - 큐가 가득 차면 chat.writer.offer-timeout-ms 동안 기다리고(backpressure), 그래도 못 넣으면 호출한 스레드에서 저장한다.
+ *   호출한 쪽 트랜잭션이 끝난 뒤 별도 트랜잭션(REQUIRES_NEW)으로 저장한다.
+ *   (실패해도 호출한 쪽 트랜잭션을 rollback-only 로 만들지 않고, 그 트랜잭션이 잠근 채팅방 행을 기다리지 않는다)
+ * - batch 저장이 실패하면 한건씩 다시 저장해서, 메시지 자체가 잘못된 것(데이터 오류)만 dead-letter 파일({spill}.dead)로 보낸다.
+ *   dead-letter 는 다시 저장하지 않는다. (chat.writer.dead 로 세고, 직접 확인)
+ * - DB 오류로 계속 실패하거나 종료시 저장하지 못한 메시지는 spill 파일에 남기고, 다음 시작때 다시 저장한다.
+ *   다시 저장할 때는 id 로 중복을 거르고, 이미 같은 메시지가 저장된 id 는 건너뛴다.
+ *   다시 저장하다 실패해 남은 {spill}.recovering 파일도 함께 다시 저장한다. (새 spill 파일은 그 뒤에 붙인다)
+ * - id 중복(duplicate key)은 시퀀스가 DB 보다 뒤로 돌아간 오류로 보고 chat.writer.duplicate 로 센 뒤,
+ *   시퀀스를 DB 최대 id 로 다시 맞추고 다른 메시지와 겹친 메시지만 새 id 로 저장한다.
+ * - 저장은 채팅방(chat_room) 행을 공유 잠금한 트랜잭션에서 하고, 그 사이 종료(보관)된 방의 메시지는 resign_chat_message 로 보낸다.
+ *   채팅방 보관은 chat_room 행을 먼저 잠그므로, 다른 서버 큐에 남아 있던 메시지도 chat_message 에 고아로 남지 않는다.
+ *   (flush() 는 이 서버 큐만 비우고, 이 서버에서 보낸 메시지가 보관 대상에 들어가게 한다)
+ */
+@Slf4j
+@Service
+public class ChatMessageWriter {
+    private static final String SEQ_KEY = "chat:seq";
+    private static final String INSERT_SQL = "INSERT INTO chat_message "
+            + "(id, room_id, type, sender, message, profile_url, enter_user_cnt, user_id, created_at, file_url, quit_owner) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // 종료된 방 (ChatRoomArchiveService 와 같은 컬럼)
+    private static final String ARCHIVE_SQL = "INSERT INTO resign_chat_message "
+            + "(room_id, type, sender, message, profile_url, enter_user_cnt, user_id, created_at, file_url) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int RETRY = 3;
+    private static final long RETRY_SLEEP_MILLIS = 1000L;
+    private static final long FLUSH_TIMEOUT_MILLIS = 10000L;
+
+    // 시퀀스가 없으면(Redis 초기화) 0, DB 최대 id 로 다시 맞춘 뒤 발급한다.
+    private static final RedisScript<Long> NEXT_ID = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+                    + "return redis.call('INCR', KEYS[1])", Long.class);
+    // 현재 값보다 클 때만 올린다.
+    private static final RedisScript<Long> INIT_SEQ = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('GET', KEYS[1]) or '0') "
+                    + "if current < tonumber(ARGV[1]) then redis.call('SET', KEYS[1], ARGV[1]) end "
+                    + "return current", Long.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<Object> queue; // ChatMessage 또는 flush 표시(CountDownLatch)
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+    private final Path spillFile;
+    private final Path recoveringFile; // 다시 저장 중 (실패하면 남겨두고 다음 시작때 다시)
+    private final Path deadLetterFile;
+    private final AtomicLong lastId = new AtomicLong(); // 이 서버가 발급한 가장 큰 id
+    private volatile boolean running;
+    private Thread worker;
+    private Counter overflowCounter;
+    private Counter spilledCounter;
+    private Counter deadCounter;
+    private Counter duplicateCounter;
+
+    public ChatMessageWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             StringRedisTemplate stringRedisTemplate,
+                             ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${chat.writer.queue-capacity:10000}") int queueCapacity,
+                             @Value("${chat.writer.batch-size:500}") int batchSize,
+                             @Value("${chat.writer.offer-timeout-ms:50}") long offerTimeoutMillis,
+                             @Value("${chat.writer.spill-file:chat-message-spill.jsonl}") String spillFile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // 호출한 쪽 트랜잭션(ChatService.save 등)에 참여하지 않는다.
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.spillFile = Paths.get(spillFile);
+        this.recoveringFile = Paths.get(spillFile + ".recovering");
+        this.deadLetterFile = Paths.get(spillFile + ".dead");
+    }
+
+    @PostConstruct
+    private void init() {
+        meterRegistry.gauge("chat.writer.queue", queue, BlockingQueue::size);
+        overflowCounter = meterRegistry.counter("chat.writer.overflow");
+        spilledCounter = meterRegistry.counter("chat.writer.spilled");
+        deadCounter = meterRegistry.counter("chat.writer.dead");
+        duplicateCounter = meterRegistry.counter("chat.writer.duplicate");
+        running = true;
+        worker = new Thread(this::drain, "chat-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // 지난 종료때 남긴 메시지 저장
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        try {
+            if (!takeSpillFile()) {
+                return;
+            }
+            // 같은 메시지가 여러번 남았을 수 있어 id 로 거른다.
+            Map<Long, ChatMessage> spilled = new LinkedHashMap<>();
+            for (String line : Files.readAllLines(recoveringFile, StandardCharsets.UTF_8)) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    ChatMessage chatMessage = objectMapper.readValue(line, ChatMessage.class);
+                    spilled.put(chatMessage.getId(), chatMessage);
+                } catch (IOException e) {
+                    deadLetter(line, e); // 끝까지 쓰지 못한 줄 등
+                }
+            }
+            List<ChatMessage> chatMessages = new ArrayList<>(spilled.values());
+            int skipped = 0;
+            List<ChatMessage> failed = new ArrayList<>();
+            for (int from = 0; from < chatMessages.size(); from += batchSize) {
+                List<ChatMessage> batch = chatMessages.subList(from, Math.min(from + batchSize, chatMessages.size()));
+                // 이미 저장된 메시지는 건너뛴다. (다른 메시지와 id 가 겹친 것은 insert 에서 새 id 로 저장)
+                Map<Long, Boolean> existing = findExisting(batch);
+                List<ChatMessage> unsaved = new ArrayList<>();
+                for (ChatMessage chatMessage : batch) {
+                    if (Boolean.TRUE.equals(existing.get(chatMessage.getId()))) {
+                        skipped++;
+                    } else {
+                        unsaved.add(chatMessage);
+                    }
+                }
+                failed.addAll(insertOrIsolate(unsaved));
+            }
+            if (!failed.isEmpty()) {
+                throw new IllegalStateException("저장하지 못한 메시지 " + failed.size() + "건");
+            }
+            Files.delete(recoveringFile);
+            log.info("채팅 메시지 spill 파일 저장 완료 : {}건 (이미 저장됨 {}건)", chatMessages.size() - skipped, skipped);
+        } catch (Exception e) {
+            // .recovering 파일은 남겨두고 다음 시작때 다시 시도 (이미 저장된 것은 id 로 건너뛴다)
+            log.error("채팅 메시지 spill 파일 저장 실패 : {}", e.getMessage());
+        }
+    }
+
+    // spill 파일을 .recovering 파일 뒤에 붙인다. (spill 과 같은 잠금, 다시 저장할 파일이 있으면 true)
+    private synchronized boolean takeSpillFile() throws IOException {
+        if (Files.exists(spillFile)) {
+            Files.write(recoveringFile, Files.readAllBytes(spillFile), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            Files.delete(spillFile);
+        }
+        return Files.exists(recoveringFile);
+    }
+
+    // 메시지 id 발급 (보낸 순서)
+    public long nextId() {
+        Long id = stringRedisTemplate.execute(NEXT_ID, Collections.singletonList(SEQ_KEY));
+        if (id == null || id == 0) {
+            reseed();
+            id = stringRedisTemplate.opsForValue().increment(SEQ_KEY);
+        }
+        lastId.accumulateAndGet(id, Math::max);
+        return id;
+    }
+
+    // 시퀀스를 DB 최대 id (와 이 서버가 발급한 id) 이상으로 맞춘다.
+    private void reseed() {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM chat_message", Long.class);
+        stringRedisTemplate.execute(INIT_SEQ, Collections.singletonList(SEQ_KEY),
+                String.valueOf(Math.max(max == null ? 0 : max, lastId.get())));
+    }
+
+    // 저장 요청 (id 가 정해진 메시지)
+    public void enqueue(ChatMessage chatMessage) {
+        try {
+            if (running && queue.offer(chatMessage, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 큐가 가득 찼거나 종료 중 : 호출한 스레드에서 호출한 쪽 트랜잭션이 끝난 뒤 저장
+        overflowCounter.increment();
+        TransactionCallbacks.afterCompletion(() -> insertNow(chatMessage));
+    }
+
+    private void insertNow(ChatMessage chatMessage) {
+        List<ChatMessage> failed = insertOrIsolate(Collections.singletonList(chatMessage));
+        if (!failed.isEmpty()) {
+            spill(failed);
+        }
+    }
+
+    // 지금까지 큐에 넣은 메시지가 DB 에 저장될 때까지 기다린다.
+    public void flush() {
+        if (!running || Thread.currentThread() == worker) {
+            return;
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            if (!queue.offer(latch, FLUSH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                    || !latch.await(FLUSH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                log.warn("채팅 메시지 flush 시간 초과 (대기 {}건)", queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    private void stop() {
+        running = false;
+        try {
+            worker.join(FLUSH_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker.interrupt();
+        // 시간 안에 저장하지 못한 메시지는 파일로
+        List<Object> items = new ArrayList<>();
+        queue.drainTo(items);
+        List<ChatMessage> remaining = new ArrayList<>();
+        for (Object item : items) {
+            if (item instanceof ChatMessage) {
+                remaining.add((ChatMessage) item);
+            } else {
+                ((CountDownLatch) item).countDown();
+            }
+        }
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+        }
+    }
+
+    // chat-writer 스레드 : 종료 요청 후에도 큐가 빌 때까지 저장
+    private void drain() {
+        List<Object> items = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Object first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                items.add(first);
+                queue.drainTo(items, batchSize - 1);
+                write(items);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                items.clear();
+            }
+        }
+    }
+
+    // flush 표시 앞의 메시지까지 저장한 뒤 표시를 풀어준다.
+    private void write(List<Object> items) throws InterruptedException {
+        List<ChatMessage> chatMessages = new ArrayList<>();
+        for (Object item : items) {
+            if (item instanceof ChatMessage) {
+                chatMessages.add((ChatMessage) item);
+                continue;
+            }
+            writeWithRetry(chatMessages);
+            chatMessages = new ArrayList<>();
+            ((CountDownLatch) item).countDown();
+        }
+        writeWithRetry(chatMessages);
+    }
+
+    private void writeWithRetry(List<ChatMessage> chatMessages) throws InterruptedException {
+        List<ChatMessage> remaining = chatMessages;
+        for (int attempt = 1; attempt <= RETRY && !remaining.isEmpty(); attempt++) {
+            if (attempt > 1) {
+                Thread.sleep(RETRY_SLEEP_MILLIS);
+            }
+            remaining = insertOrIsolate(remaining);
+        }
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+        }
+    }
+
+    // batch 로 저장하고, 실패하면 한건씩 저장해서 잘못된 메시지만 dead-letter 로 보낸다.
+    // 반환값 : DB 오류로 저장하지 못한 메시지 (첫 DB 오류부터 끝까지, 다시 시도할 것)
+    private List<ChatMessage> insertOrIsolate(List<ChatMessage> chatMessages) {
+        if (chatMessages.isEmpty()) {
+            return chatMessages;
+        }
+        try {
+            insert(chatMessages);
+            return Collections.emptyList();
+        } catch (Exception e) {
+            log.error("채팅 메시지 {}건 저장 실패, 한건씩 저장 : {}", chatMessages.size(), e.getMessage());
+        }
+        for (int i = 0; i < chatMessages.size(); i++) {
+            ChatMessage chatMessage = chatMessages.get(i);
+            try {
+                insert(Collections.singletonList(chatMessage));
+            } catch (Exception e) {
+                if (!isRetryable(e)) {
+                    deadLetter(chatMessage, e);
+                    continue;
+                }
+                // 나머지도 같은 이유로 실패할 것이므로 멈춘다.
+                log.error("채팅 메시지 저장 실패 ({}건 남음) : {}", chatMessages.size() - i, e.getMessage());
+                return new ArrayList<>(chatMessages.subList(i, chatMessages.size()));
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    // 연결/잠금/시간 초과 등 다시 하면 될 수 있는 오류, 그 외(길이 초과, NOT NULL 등)는 메시지 자체의 문제로 본다.
+    private static boolean isRetryable(Exception e) {
+        return e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException || e instanceof TransactionException
+                || e instanceof DuplicateKeyException;
+    }
+
+    // 열린 방 메시지는 chat_message, 그 사이 종료(보관)된 방 메시지는 resign_chat_message 로 (한 트랜잭션)
+    private void insert(List<ChatMessage> chatMessages) {
+        if (chatMessages.isEmpty()) {
+            return;
+        }
+        transactionTemplate.execute(status -> {
+            Set<String> closedRooms = findClosedRooms(chatMessages);
+            List<ChatMessage> open = new ArrayList<>();
+            List<Object[]> archiveArgs = new ArrayList<>();
+            for (ChatMessage chatMessage : chatMessages) {
+                if (!closedRooms.contains(chatMessage.getRoomId())) {
+                    open.add(chatMessage);
+                    continue;
+                }
+                archiveArgs.add(new Object[]{chatMessage.getRoomId(), chatMessage.getType().name(),
+                        chatMessage.getSender(), chatMessage.getMessage(), chatMessage.getProfileUrl(),
+                        chatMessage.getEnterUserCnt(), chatMessage.getUserId(), Timestamp.valueOf(chatMessage.getCreatedAt()),
+                        chatMessage.getFileUrl()});
+            }
+            if (!archiveArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate(ARCHIVE_SQL, archiveArgs);
+                log.info("종료된 채팅방 메시지 {}건 resign_chat_message 에 저장", archiveArgs.size());
+            }
+            insertOpen(open);
+            return null;
+        });
+    }
+
+    private void insertOpen(List<ChatMessage> chatMessages) {
+        if (chatMessages.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, insertArgs(chatMessages));
+        } catch (DuplicateKeyException e) {
+            // batch 일부는 저장됐을 수 있다 : 같은 메시지가 저장된 id 는 건너뛰고, 다른 메시지와 겹친 id 는 새로 발급
+            Map<Long, Boolean> existing = findExisting(chatMessages);
+            List<ChatMessage> retry = new ArrayList<>();
+            int conflicts = 0;
+            for (ChatMessage chatMessage : chatMessages) {
+                Boolean same = existing.get(chatMessage.getId());
+                if (Boolean.TRUE.equals(same)) {
+                    continue;
+                }
+                if (same != null) {
+                    conflicts++;
+                }
+                retry.add(chatMessage);
+            }
+            duplicateCounter.increment(Math.max(conflicts, 1));
+            log.error("채팅 메시지 id 중복 {}건, 시퀀스 재설정 : {}", conflicts, e.getMessage());
+            reseed();
+            for (ChatMessage chatMessage : retry) {
+                if (existing.containsKey(chatMessage.getId())) {
+                    chatMessage.setId(nextId());
+                }
+            }
+            if (!retry.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, insertArgs(retry));
+            }
+        }
+    }
+
+    private List<Object[]> insertArgs(List<ChatMessage> chatMessages) {
+        List<Object[]> args = new ArrayList<>();
+        for (ChatMessage chatMessage : chatMessages) {
+            args.add(new Object[]{chatMessage.getId(), chatMessage.getRoomId(), chatMessage.getType().name(),
+                    chatMessage.getSender(), chatMessage.getMessage(), chatMessage.getProfileUrl(),
+                    chatMessage.getEnterUserCnt(), chatMessage.getUserId(), Timestamp.valueOf(chatMessage.getCreatedAt()),
+                    chatMessage.getFileUrl(), chatMessage.getQuitOwner()});
+        }
+        return args;
+    }
+
+    // chat_room 에 없고 resign_chat_room 에 있는 방 (열린 방은 보관이 끝날 때까지 공유 잠금)
+    private Set<String> findClosedRooms(List<ChatMessage> chatMessages) {
+        Set<String> roomIds = new LinkedHashSet<>();
+        for (ChatMessage chatMessage : chatMessages) {
+            roomIds.add(chatMessage.getRoomId());
+        }
+        List<String> openRooms = jdbcTemplate.queryForList("SELECT room_id FROM chat_room WHERE room_id IN ("
+                + placeholders(roomIds.size()) + ") FOR SHARE", String.class, roomIds.toArray());
+        roomIds.removeAll(openRooms);
+        if (roomIds.isEmpty()) {
+            return roomIds;
+        }
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT DISTINCT room_id FROM resign_chat_room WHERE room_id IN ("
+                + placeholders(roomIds.size()) + ")", String.class, roomIds.toArray()));
+    }
+
+    // 이미 있는 id -> 같은 메시지(방, 보낸 사람, 내용이 같음)인지
+    private Map<Long, Boolean> findExisting(List<ChatMessage> chatMessages) {
+        Map<Long, ChatMessage> byId = new HashMap<>();
+        for (ChatMessage chatMessage : chatMessages) {
+            byId.put(chatMessage.getId(), chatMessage);
+        }
+        Map<Long, Boolean> existing = new HashMap<>();
+        if (byId.isEmpty()) {
+            return existing;
+        }
+        jdbcTemplate.query("SELECT id, room_id, user_id, message FROM chat_message WHERE id IN ("
+                + placeholders(byId.size()) + ")", rs -> {
+            ChatMessage chatMessage = byId.get(rs.getLong("id"));
+            Long userId = rs.getObject("user_id") == null ? null : rs.getLong("user_id");
+            existing.put(chatMessage.getId(), chatMessage.getRoomId().equals(rs.getString("room_id"))
+                    && Objects.equals(chatMessage.getUserId(), userId)
+                    && Objects.equals(chatMessage.getMessage(), rs.getString("message")));
+        }, byId.keySet().toArray());
+        return existing;
+    }
+
+    private static String placeholders(int size) {
+        return String.join(", ", Collections.nCopies(size, "?"));
+    }
+
+    private void deadLetter(ChatMessage chatMessage, Exception cause) {
+        try {
+            deadLetter(objectMapper.writeValueAsString(chatMessage), cause);
+        } catch (IOException e) {
+            log.error("채팅 메시지 dead-letter 실패, 유실 (id : {}) : {}", chatMessage.getId(), e.getMessage());
+        }
+    }
+
+    // 한 줄에 하나, 다시 저장하지 않는다.
+    private synchronized void deadLetter(String line, Exception cause) {
+        try {
+            Files.write(deadLetterFile, Collections.singletonList(line), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            deadCounter.increment();
+            log.error("채팅 메시지 저장 불가, dead-letter 파일에 저장 : {} ({})", deadLetterFile, cause.getMessage());
+        } catch (IOException e) {
+            log.error("채팅 메시지 dead-letter 실패, 유실 : {}", e.getMessage());
+        }
+    }
+
+    // 한 줄에 메시지 하나(JSON), 다음 시작때 recover 에서 저장
+    private synchronized void spill(List<ChatMessage> chatMessages) {
+        try {
+            List<String> lines = new ArrayList<>();
+            for (ChatMessage chatMessage : chatMessages) {
+                lines.add(objectMapper.writeValueAsString(chatMessage));
+            }
+            Files.write(spillFile, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            spilledCounter.increment(chatMessages.size());
+            log.warn("채팅 메시지 {}건 spill 파일에 저장 : {}", chatMessages.size(), spillFile);
+        } catch (IOException e) {
+            log.error("채팅 메시지 spill 실패, {}건 유실 : {}", chatMessages.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.sparta.meeting_platform.chat.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * 채팅방 접속 인원 (여러 서버 공통)
+ * - presence:{roomId} (ZSET) : 구독 중인 웹소켓 sessionId (score : 마지막 heartbeat 시각)
+ * - 서버마다 자기 세션의 구독(subscriptionId -> roomId)을 들고 있다가 heartbeat 마다 다시 넣어(ZADD) score 를 갱신하고,
+ *   (만료로 지워졌던 살아 있는 세션도 다시 들어간다)
+ *   DISCONNECT(목적지 헤더가 없음) 때는 그 세션의 구독을 모두 지우고, 종료할 때는 자기 세션을 한번에 지운다.
+ * - 서버가 죽어 갱신되지 않는 세션은 ttl 이 지나면 인원 조회/변경 때 지운다.
+ * - 인원수는 서버마다 짧게(count-cache-ms) 캐시하고, 이 서버에서 입장/퇴장이 있으면 바로 다시 읽는다.
+ *   지난 캐시는 heartbeat 마다 지운다.
+ */
+@Slf4j
+@Service
+public class ChatPresenceService {
+    private static final String PRESENCE_KEY = "presence:";
+
+    // 만료된 세션 정리 후 인원수 (ARGV : 만료 기준 시각)
+    private static final RedisScript<Long> COUNT = new DefaultRedisScript<>(
+            "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[1]) "
+                    + "return redis.call('ZCARD', KEYS[1])", Long.class);
+    // 만료된 세션 정리 후 추가 (ARGV : 만료 기준 시각, 현재 시각, sessionId, ttl)
+    private static final RedisScript<Long> JOIN = new DefaultRedisScript<>(
+            "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[1]) "
+                    + "redis.call('ZADD', KEYS[1], ARGV[2], ARGV[3]) "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[4]) "
+                    + "return redis.call('ZCARD', KEYS[1])", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TaskScheduler presenceScheduler;
+    private final long ttlMillis;
+    private final long heartbeatMillis;
+    private final long countCacheMillis;
+
+    // 이 서버의 세션 : sessionId, (subscriptionId, roomId)
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+    // roomId, {인원수, 읽은 시각} (count-cache-ms 가 지난 값은 heartbeat 때 지운다)
+    private final Map<String, long[]> counts = new ConcurrentHashMap<>();
+
+    public ChatPresenceService(StringRedisTemplate stringRedisTemplate,
+                               @Qualifier("presenceScheduler") TaskScheduler presenceScheduler,
+                               @Value("${chat.presence.ttl-ms:60000}") long ttlMillis,
+                               @Value("${chat.presence.heartbeat-ms:20000}") long heartbeatMillis,
+                               @Value("${chat.presence.count-cache-ms:1000}") long countCacheMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.presenceScheduler = presenceScheduler;
+        this.ttlMillis = ttlMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        this.countCacheMillis = countCacheMillis;
+    }
+
+    @PostConstruct
+    private void init() {
+        presenceScheduler.scheduleWithFixedDelay(this::heartbeat, Duration.ofMillis(heartbeatMillis));
+    }
+
+    // 채팅방 구독
+    public void join(String sessionId, String subscriptionId, String roomId) {
+        sessions.computeIfAbsent(sessionId, key -> new ConcurrentHashMap<>()).put(subscriptionId, roomId);
+        long now = System.currentTimeMillis();
+        try {
+            Long count = stringRedisTemplate.execute(JOIN, Collections.singletonList(PRESENCE_KEY + roomId),
+                    String.valueOf(now - ttlMillis), String.valueOf(now), sessionId, String.valueOf(ttlMillis));
+            counts.put(roomId, new long[]{count == null ? 0 : count, now});
+        } catch (Exception e) {
+            log.error("채팅방 입장 기록 실패 : {} {}", roomId, e.getMessage());
+            counts.remove(roomId);
+        }
+    }
+
+    // 구독 취소 (UNSUBSCRIBE 에는 목적지가 없어 subscriptionId 로 채팅방을 찾는다)
+    public void leave(String sessionId, String subscriptionId) {
+        Map<String, String> subscriptions = sessions.get(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        String roomId = subscriptions.remove(subscriptionId);
+        if (roomId == null || subscriptions.containsValue(roomId)) {
+            return; // 같은 채팅방을 다른 구독으로 보고 있으면 유지
+        }
+        if (subscriptions.isEmpty()) {
+            sessions.remove(sessionId, subscriptions);
+        }
+        remove(Collections.singletonMap(sessionId, Collections.singletonList(roomId)));
+    }
+
+    // 연결 종료 : 세션의 모든 구독
+    public void disconnect(String sessionId) {
+        Map<String, String> subscriptions = sessions.remove(sessionId);
+        if (subscriptions == null || subscriptions.isEmpty()) {
+            return;
+        }
+        remove(Collections.singletonMap(sessionId, new ArrayList<>(subscriptions.values())));
+    }
+
+    // 채팅방 인원수 (count-cache-ms 동안은 서버 캐시)
+    public Long getUserCnt(String roomId) {
+        long now = System.currentTimeMillis();
+        long[] cached = counts.get(roomId);
+        if (cached != null && now - cached[1] < countCacheMillis) {
+            return cached[0];
+        }
+        try {
+            Long count = stringRedisTemplate.execute(COUNT, Collections.singletonList(PRESENCE_KEY + roomId),
+                    String.valueOf(now - ttlMillis));
+            long value = count == null ? 0 : count;
+            counts.put(roomId, new long[]{value, now});
+            return value;
+        } catch (Exception e) {
+            log.error("채팅방 인원 조회 실패 : {} {}", roomId, e.getMessage());
+            return cached == null ? 0L : cached[0];
+        }
+    }
+
+    // 이 서버 세션의 score 갱신
+    // 넣는 사이 퇴장/연결 종료된 구독은 그쪽 ZREM 보다 ZADD 가 늦었을 수 있으므로, 넣은 뒤 다시 확인해서 지운다.
+    private void heartbeat() {
+        pruneCounts();
+        if (sessions.isEmpty()) {
+            return;
+        }
+        Map<String, List<String>> beats = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> session : sessions.entrySet()) {
+            beats.put(session.getKey(), new ArrayList<>(new HashSet<>(session.getValue().values())));
+        }
+        double now = System.currentTimeMillis();
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+                for (Map.Entry<String, List<String>> beat : beats.entrySet()) {
+                    for (String roomId : beat.getValue()) {
+                        stringRedisConnection.zAdd(PRESENCE_KEY + roomId, now, beat.getKey());
+                        stringRedisConnection.pExpire(PRESENCE_KEY + roomId, ttlMillis);
+                    }
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("채팅방 heartbeat 실패 : {}", e.getMessage());
+        }
+        Map<String, List<String>> left = new HashMap<>();
+        for (Map.Entry<String, List<String>> beat : beats.entrySet()) {
+            Map<String, String> subscriptions = sessions.get(beat.getKey());
+            for (String roomId : beat.getValue()) {
+                if (subscriptions == null || !subscriptions.containsValue(roomId)) {
+                    left.computeIfAbsent(beat.getKey(), key -> new ArrayList<>()).add(roomId);
+                }
+            }
+        }
+        remove(left);
+    }
+
+    // 지난 인원수 캐시 정리 (한번 조회하고 다시 조회하지 않는 채팅방이 계속 쌓이지 않게)
+    // 그 사이 새로 읽은 값은 지우지 않는다.
+    private void pruneCounts() {
+        long expiredAt = System.currentTimeMillis() - countCacheMillis;
+        for (Map.Entry<String, long[]> entry : counts.entrySet()) {
+            if (entry.getValue()[1] < expiredAt) {
+                counts.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    // 서버 종료 : 이 서버 세션 전부
+    @PreDestroy
+    private void stop() {
+        Map<String, List<String>> rooms = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> session : sessions.entrySet()) {
+            rooms.put(session.getKey(), new ArrayList<>(session.getValue().values()));
+        }
+        sessions.clear();
+        remove(rooms);
+    }
+
+    // sessionId, roomId 목록
+    private void remove(Map<String, List<String>> rooms) {
+        if (rooms.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+                for (Map.Entry<String, ? extends List<String>> session : rooms.entrySet()) {
+                    for (String roomId : session.getValue()) {
+                        stringRedisConnection.zRem(PRESENCE_KEY + roomId, session.getKey());
+                    }
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // 지우지 못해도 ttl 이 지나면 정리된다.
+            log.error("채팅방 퇴장 기록 실패 : {}", e.getMessage());
+        }
+        for (List<String> roomIds : rooms.values()) {
+            for (String roomId : roomIds) {
+                counts.remove(roomId);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.sparta.meeting_platform.chat.service;
+
+import com.sparta.meeting_platform.chat.repository.ChatRoomMemberRepository;
+import com.sparta.meeting_platform.chat.repository.ChatRoomSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+
+/*
+ * 채팅방 종료시 채팅방/메시지를 resign_chat_room, resign_chat_message 로 옮긴다.
+ * 메시지 수와 상관없이 INSERT ... SELECT + DELETE 한번씩으로 처리하고, 호출하는 쪽 트랜잭션 안에서 실행된다.
+ * (게시글 삭제, 방장 나가기, 만료 게시글 정리)
+ * chat_room 행을 먼저 잠가 (room_id UNIQUE 인덱스로 이 방 행만 잠근다, PostSchemaInitializer), 다른 서버의 chat-writer 가 저장 중인 이 방 메시지는 끝난 뒤에 함께 옮기고
+ * 이후에 저장되는 메시지는 chat-writer 가 resign_chat_message 로 보내게 한다. (ChatMessageWriter 참고)
+ * 호출하는 쪽은 이 서버에서 저장 대기 중인 메시지도 함께 옮기도록, 트랜잭션에서 잠금을 잡기 전에 ChatMessageWriter.flush() 를 한번 부른다.
+ * (잠근 뒤에 flush 하면 chat-writer 가 이 잠금을 기다려 flush 가 시간 초과까지 멈춘다)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatRoomArchiveService {
+    private final EntityManager em;
+    private final ChatRoomSummaryRepository chatRoomSummaryRepository;
+    private final ChatRoomMemberRepository chatRoomMemberRepository;
+
+    public void archive(String roomId) {
+        em.createNativeQuery("SELECT room_id FROM chat_room WHERE room_id = :roomId FOR UPDATE")
+                .setParameter("roomId", roomId)
+                .getResultList();
+        em.createNativeQuery("INSERT INTO resign_chat_room (room_id, username) "
+                        + "SELECT room_id, username FROM chat_room WHERE room_id = :roomId")
+                .setParameter("roomId", roomId)
+                .executeUpdate();
+        int count = em.createNativeQuery("INSERT INTO resign_chat_message "
+                        + "(room_id, type, sender, message, profile_url, enter_user_cnt, user_id, created_at, file_url) "
+                        + "SELECT room_id, type, sender, message, profile_url, enter_user_cnt, user_id, created_at, file_url "
+                        + "FROM chat_message WHERE room_id = :roomId ORDER BY id")
+                .setParameter("roomId", roomId)
+                .executeUpdate();
+        em.createNativeQuery("DELETE FROM chat_message WHERE room_id = :roomId")
+                .setParameter("roomId", roomId)
+                .executeUpdate();
+        em.createNativeQuery("DELETE FROM chat_room WHERE room_id = :roomId")
+                .setParameter("roomId", roomId)
+                .executeUpdate();
+        chatRoomSummaryRepository.removeRoom(roomId); // 참여자 목록에 남은 roomId 는 조회때 정리된다.
+        chatRoomMemberRepository.removeRoom(roomId);
+        log.info("채팅방 보관 완료 : {} (메시지 {}건)", roomId, count);
+    }
+}
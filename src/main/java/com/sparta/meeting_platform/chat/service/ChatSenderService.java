@@ -0,0 +1,113 @@
+package com.sparta.meeting_platform.chat.service;
+
+import com.sparta.meeting_platform.chat.dto.SenderDto;
+import com.sparta.meeting_platform.domain.User;
+import com.sparta.meeting_platform.exception.UserApiException;
+import com.sparta.meeting_platform.repository.UserRepository;
+import com.sparta.meeting_platform.util.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * 채팅 보낸 사람 정보 (닉네임, 프로필 사진)
+ * - STOMP CONNECT 때 토큰의 유저 id 를 세션에 저장하고(StompHandler), SEND 때는 세션의 유저 id 로 이 캐시에서 찾는다.
+ * - 프로필 수정/회원 탈퇴시 evict 로 모든 서버의 캐시에서 지운다. (Redis USER_PROFILE 채널, 트랜잭션 커밋 이후)
+ * - 캐시는 서버마다 최근에 쓴 MAX_SIZE 명까지만 두고(LRU), 밀려난 유저는 다음 SEND 때 DB 에서 다시 읽는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatSenderService implements MessageListener {
+    public static final String USER_PROFILE = "USER_PROFILE"; // 프로필 변경 알림 채널
+    public static final String SESSION_USER_ID = "userId"; // 웹소켓 세션 속성 이름
+    private static final int MAX_SIZE = 10000;
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListener;
+
+    // userId, 보낸 사람 정보 (access-order LinkedHashMap 으로 LRU)
+    private final Map<Long, SenderDto> senders = Collections.synchronizedMap(
+            new LinkedHashMap<Long, SenderDto>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, SenderDto> eldest) {
+                    return size() > MAX_SIZE;
+                }
+            });
+    // evict 횟수 : DB 에서 읽는 사이 evict 가 있었으면 읽은 값을 캐시하지 않는다.
+    private final AtomicLong evictions = new AtomicLong();
+
+    @PostConstruct
+    private void init() {
+        redisMessageListener.addMessageListener(this, new ChannelTopic(USER_PROFILE));
+    }
+
+    // CONNECT : 토큰의 username 으로 유저를 찾아 캐시에 넣고 유저 id 반환
+    public Long connect(String username) {
+        User user = userRepository.findByUsername(username).orElseThrow(
+                () -> new UserApiException("존재하지 않는 사용자 입니다."));
+        SenderDto sender = new SenderDto(user);
+        senders.put(sender.getUserId(), sender);
+        return sender.getUserId();
+    }
+
+    // DB 조회는 캐시 잠금 밖에서 한다.
+    public SenderDto getSender(Long userId) {
+        SenderDto sender = senders.get(userId);
+        if (sender != null) {
+            return sender;
+        }
+        long version = evictions.get();
+        sender = new SenderDto(userRepository.findById(userId).orElseThrow(
+                () -> new UserApiException("존재하지 않는 사용자 입니다.")));
+        synchronized (senders) {
+            if (version == evictions.get()) {
+                senders.put(userId, sender);
+            }
+        }
+        return sender;
+    }
+
+    // 프로필이 바뀐 유저를 모든 서버의 캐시에서 지운다. (트랜잭션 커밋 이후)
+    public void evict(Long userId) {
+        TransactionCallbacks.afterCommit(() -> notifyEvict(userId));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            remove(Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            log.error("채팅 유저 정보 캐시 삭제 실패 : {}", e.getMessage());
+        }
+    }
+
+    private void remove(Long userId) {
+        synchronized (senders) {
+            evictions.incrementAndGet();
+            senders.remove(userId);
+        }
+    }
+
+    private void notifyEvict(Long userId) {
+        remove(userId);
+        try {
+            stringRedisTemplate.convertAndSend(USER_PROFILE, String.valueOf(userId));
+        } catch (Exception e) {
+            log.error("채팅 유저 정보 변경 알림 실패 : {}", e.getMessage());
+        }
+    }
+}
@@ -3,17 +3,23 @@ package com.sparta.meeting_platform.chat.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.sparta.meeting_platform.chat.dto.ChatMessageDto;
+import com.sparta.meeting_platform.chat.dto.ChatMessagePageDto;
 import com.sparta.meeting_platform.chat.dto.FilesDto;
+import com.sparta.meeting_platform.chat.dto.NotificationDto;
+import com.sparta.meeting_platform.chat.dto.SenderDto;
 import com.sparta.meeting_platform.chat.dto.UserDetailDto;
 import com.sparta.meeting_platform.chat.dto.UserinfoDto;
 import com.sparta.meeting_platform.chat.model.*;
 import com.sparta.meeting_platform.chat.repository.*;
 import com.sparta.meeting_platform.domain.User;
+import com.sparta.meeting_platform.exception.ChatApiException;
 import com.sparta.meeting_platform.exception.UserApiException;
 import com.sparta.meeting_platform.repository.LikeRepository;
 import com.sparta.meeting_platform.repository.PostRepository;
 import com.sparta.meeting_platform.repository.UserRepository;
 import com.sparta.meeting_platform.security.UserDetailsImpl;
+import com.sparta.meeting_platform.service.PostAggregateService;
+import com.sparta.meeting_platform.service.PostGeoIndexService;
 import com.sparta.meeting_platform.service.S3Service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -22,18 +28,22 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class ChatService {
+    private static final int MAX_COLUMN_LENGTH = 255; // chat_message 의 message, file_url (varchar)
 
     private final RedisPublisher redisPublisher;
-    private final ChatRoomRepository chatRoomRepository;
     private final ChatMessageRepository chatMessageRepository;
     private final UserRepository userRepository;
     private final ChatMessageJpaRepository chatMessageJpaRepository;
@@ -43,48 +53,62 @@ public class ChatService {
     private final ResignChatRoomJpaRepository resignChatRoomJpaRepository;
     private final PostRepository postRepository;
     private final LikeRepository likeRepository;
-    private final ResignChatMessageJpaRepository resignChatMessageJpaRepository;
+    private final ChatRoomArchiveService chatRoomArchiveService;
+    private final ChatMessageWriter chatMessageWriter;
+    private final ChatSenderService chatSenderService;
+    private final UnreadRepository unreadRepository;
+    private final ChatRoomSummaryRepository chatRoomSummaryRepository;
+    private final ChatRoomMemberRepository chatRoomMemberRepository;
+    private final ReadReceiptService readReceiptService;
+    private final ChatPresenceService chatPresenceService;
+    private final NotificationPushService notificationPushService;
+    private final PostGeoIndexService postGeoIndexService;
+    private final PostAggregateService postAggregateService;
 
 
     @Transactional
-    public void save(ChatMessageDto messageDto, Long pk) throws JsonProcessingException {
-        // 토큰에서 유저 아이디 가져오기
-        User user = userRepository.findById(pk).orElseThrow(
-                () -> new NullPointerException("존재하지 않는 사용자 입니다!")
-        );
+    public void save(ChatMessageDto messageDto, Long userId) throws JsonProcessingException {
+        validate(messageDto);
+        // 세션에 저장된 유저 id 로 보낸 사람 정보 가져오기 (CONNECT 때 토큰에서 확인)
+        SenderDto sender = chatSenderService.getSender(userId);
         LocalDateTime createdAt = LocalDateTime.now();
         String formatDate = createdAt.format(DateTimeFormatter.ofPattern("dd,MM,yyyy,HH,mm,ss", Locale.KOREA));
-        Long enterUserCnt = chatMessageRepository.getUserCnt(messageDto.getRoomId());
+        Long enterUserCnt = chatPresenceService.getUserCnt(messageDto.getRoomId()); // 서버 캐시 (짧게)
         messageDto.setEnterUserCnt(enterUserCnt);
-        messageDto.setSender(user.getNickName());
-        messageDto.setProfileUrl(user.getProfileUrl());
+        messageDto.setSender(sender.getNickName());
+        messageDto.setProfileUrl(sender.getProfileUrl());
         messageDto.setCreatedAt(formatDate);
-        messageDto.setUserId(user.getId());
+        messageDto.setUserId(sender.getUserId());
         messageDto.setQuitOwner(false);
 
         //받아온 메세지의 타입이 ENTER 일때
         if (ChatMessage.MessageType.ENTER.equals(messageDto.getType())) {
-            chatRoomRepository.enterChatRoom(messageDto.getRoomId());
+            User user = findUser(userId);
             messageDto.setMessage( messageDto.getSender() + "님이 입장하셨습니다.");
             String roomId = messageDto.getRoomId();
 
 
-            List<InvitedUsers> invitedUsersList = invitedUsersRepository.findAllByPostId(Long.parseLong(roomId));
-            for (InvitedUsers invitedUsers : invitedUsersList) {
-                if (invitedUsers.getUser().equals(user)) {
-                    invitedUsers.setReadCheck(true);
-                }
-            }
+            unreadRepository.clear(user.getId(), roomId); // 읽음 처리
             // 이미 그방에 초대되어 있다면 중복으로 저장을 하지 않게 한다.
             if (!invitedUsersRepository.existsByUserIdAndPostId(user.getId(), Long.parseLong(roomId))) {
                 InvitedUsers invitedUsers = new InvitedUsers(Long.parseLong(roomId), user);
                 invitedUsersRepository.save(invitedUsers);
+                postAggregateService.join(invitedUsers.getPostId(), user.getMannerTemp());
+                chatRoomSummaryRepository.join(user.getId(), roomId);
+                chatRoomMemberRepository.join(user.getId(), roomId);
             }
+            readReceiptService.enter(user.getId(), roomId); // 채팅방 안 (커밋 이후 모아서 DB 반영)
             //받아온 메세지 타입이 QUIT 일때
         } else if (ChatMessage.MessageType.QUIT.equals(messageDto.getType())) {
+            // 앞서 보낸 메시지까지 저장된 뒤 보관/삭제 (채팅방 행을 잠그기 전에 한번만)
+            chatMessageWriter.flush();
+            User user = findUser(userId);
             messageDto.setMessage(messageDto.getSender() + "님이 나가셨습니다.");
             if (invitedUsersRepository.existsByUserIdAndPostId(user.getId(), Long.parseLong(messageDto.getRoomId()))) {
-                invitedUsersRepository.deleteByUserIdAndPostId(user.getId(), Long.parseLong(messageDto.getRoomId()));
+                long count = invitedUsersRepository.deleteByUserIdAndPostId(user.getId(), Long.parseLong(messageDto.getRoomId()));
+                postAggregateService.leave(Long.parseLong(messageDto.getRoomId()), user.getMannerTemp(), count);
+                chatRoomSummaryRepository.leave(user.getId(), messageDto.getRoomId());
+                chatRoomMemberRepository.leave(user.getId(), Collections.singletonList(messageDto.getRoomId()));
             }
             if (!postRepository.existsById(Long.parseLong(messageDto.getRoomId()))) {
                 ResignChatRoom chatRoom = resignChatRoomJpaRepository.findByRoomId(messageDto.getRoomId());
@@ -94,17 +118,10 @@ public class ChatService {
                             "더 이상 대화를 할 수 없으며 채팅방을 나가면 다시 입장할 수 없습니다.");
                     likeRepository.deleteByPostId(Long.parseLong(messageDto.getRoomId()));
                     postRepository.deleteById(Long.parseLong(messageDto.getRoomId()));
+                    postAggregateService.remove(Long.parseLong(messageDto.getRoomId()));
+                    postGeoIndexService.remove(Long.parseLong(messageDto.getRoomId()));
                     user.setIsOwner(false);
-                    ChatRoom findChatRoom = chatRoomJpaRepository.findByRoomId(messageDto.getRoomId());
-                    List<ChatMessage> chatMessage = chatMessageJpaRepository.findAllByRoomId(messageDto.getRoomId());
-                    ResignChatRoom resignChatRoom = new ResignChatRoom(findChatRoom);
-                    resignChatRoomJpaRepository.save(resignChatRoom);
-                    for (ChatMessage message : chatMessage) {
-                        ResignChatMessage resignChatMessage = new ResignChatMessage(message);
-                        resignChatMessageJpaRepository.save(resignChatMessage);
-                    }
-                    chatMessageJpaRepository.deleteByRoomId(messageDto.getRoomId());
-                    chatRoomJpaRepository.deleteByRoomId(messageDto.getRoomId());
+                    chatRoomArchiveService.archive(messageDto.getRoomId());
                 }
             }else {
                 ChatRoom chatRoom = chatRoomJpaRepository.findByRoomId(messageDto.getRoomId());
@@ -114,26 +131,81 @@ public class ChatService {
                             "더 이상 대화를 할 수 없으며 채팅방을 나가면 다시 입장할 수 없습니다.");
                     likeRepository.deleteByPostId(Long.parseLong(messageDto.getRoomId()));
                     postRepository.deleteById(Long.parseLong(messageDto.getRoomId()));
+                    postAggregateService.remove(Long.parseLong(messageDto.getRoomId()));
+                    postGeoIndexService.remove(Long.parseLong(messageDto.getRoomId()));
                     user.setIsOwner(false);
-                    ChatRoom findChatRoom = chatRoomJpaRepository.findByRoomId(messageDto.getRoomId());
-                    List<ChatMessage> chatMessage = chatMessageJpaRepository.findAllByRoomId(messageDto.getRoomId());
-                    ResignChatRoom resignChatRoom = new ResignChatRoom(findChatRoom);
-                    resignChatRoomJpaRepository.save(resignChatRoom);
-                    for (ChatMessage message : chatMessage) {
-                        ResignChatMessage resignChatMessage = new ResignChatMessage(message);
-                        resignChatMessageJpaRepository.save(resignChatMessage);
-                    }
-                    chatMessageJpaRepository.deleteByRoomId(messageDto.getRoomId());
-                    chatRoomJpaRepository.deleteByRoomId(messageDto.getRoomId());
+                    chatRoomArchiveService.archive(messageDto.getRoomId());
                 }
             }
-            chatMessageJpaRepository.deleteByRoomId(messageDto.getRoomId());
+            chatMessageJpaRepository.bulkDeleteByRoomId(messageDto.getRoomId());
         }
-        chatMessageRepository.save(messageDto); // 캐시에 저장 했다.
         ChatMessage chatMessage = new ChatMessage(messageDto, createdAt);
-        chatMessageJpaRepository.save(chatMessage); // DB 저장
+        chatMessage.setId(chatMessageWriter.nextId());
+        messageDto.setId(chatMessage.getId()); // 이전 메시지 조회 커서
         // Websocket 에 발행된 메시지를 redis 로 발행한다(publish)
         redisPublisher.publish(ChatRoomRepository.getTopic(messageDto.getRoomId()), messageDto);
+        chatMessageWriter.enqueue(chatMessage); // DB 저장 (write-behind)
+        chatMessageRepository.save(messageDto); // 캐시에 저장 했다.
+        notifyMembers(messageDto, createdAt);
+    }
+
+    // 참여자 채팅 목록의 마지막 메시지 갱신, 채팅방 밖에 있는 참여자에게 안 읽은 알림 추가 (보낸 사람 제외)
+    // 참여자는 Redis(room:members)에서 읽고, 없을 때만 DB 에서 읽어 채운다.
+    private void notifyMembers(ChatMessageDto messageDto, LocalDateTime createdAt) {
+        Map<Long, Boolean> readChecks = chatRoomMemberRepository.findMembers(messageDto.getRoomId());
+        if (readChecks == null) {
+            readChecks = new LinkedHashMap<>();
+            for (Object[] member : invitedUsersRepository.findMembers(Long.parseLong(messageDto.getRoomId()))) {
+                readChecks.put((Long) member[0], (Boolean) member[1]);
+            }
+            readReceiptService.overlay(messageDto.getRoomId(), readChecks); // 아직 DB 에 반영 안 된 입장/퇴장
+            chatRoomMemberRepository.putMembers(messageDto.getRoomId(), readChecks);
+        }
+        List<Long> memberIds = new ArrayList<>(readChecks.keySet());
+        List<Long> userIds = new ArrayList<>();
+        for (Map.Entry<Long, Boolean> readCheck : readChecks.entrySet()) {
+            if (!Boolean.TRUE.equals(readCheck.getValue()) && !readCheck.getKey().equals(messageDto.getUserId())) {
+                userIds.add(readCheck.getKey());
+            }
+        }
+        chatRoomSummaryRepository.putMessage(messageDto.getRoomId(), memberIds,
+                messageDto.getMessage() == null ? "" : messageDto.getMessage(),
+                messageDto.getCreatedAt(), Timestamp.valueOf(createdAt).getTime());
+
+        NotificationDto notificationDto = new NotificationDto();
+        if (messageDto.getMessage() == null || messageDto.getMessage().isEmpty()) {
+            notificationDto.setMessage("파일이 왔어요😲");
+        } else {
+            notificationDto.setMessage(messageDto.getMessage());
+        }
+        notificationDto.setNickname(messageDto.getSender());
+        notificationDto.setCreatedAt(createdAt);
+        notificationDto.setRoomId(messageDto.getRoomId());
+        unreadRepository.add(userIds, messageDto.getRoomId(), notificationDto);
+        notificationPushService.publish(userIds, notificationDto);
+    }
+
+    // DB 에 저장할 수 없는 메시지는 발행하기 전에 거절한다. (발행 후 write-behind 저장에서 실패하지 않게)
+    private void validate(ChatMessageDto messageDto) {
+        if (messageDto.getType() == null || messageDto.getRoomId() == null) {
+            throw new ChatApiException("메시지 타입과 채팅방을 확인해 주세요.");
+        }
+        if (messageDto.getMessage() == null) {
+            messageDto.setMessage(""); // 파일 메시지 (message 는 NOT NULL)
+        }
+        if (messageDto.getMessage().length() > MAX_COLUMN_LENGTH) {
+            throw new ChatApiException("메시지는 " + MAX_COLUMN_LENGTH + "자까지 보낼 수 있습니다.");
+        }
+        if (messageDto.getFileUrl() != null && messageDto.getFileUrl().length() > MAX_COLUMN_LENGTH) {
+            throw new ChatApiException("파일 주소가 너무 깁니다.");
+        }
+    }
+
+    // 입장/나가기 처리에만 유저 엔티티가 필요하다.
+    private User findUser(Long userId) {
+        return userRepository.findById(userId).orElseThrow(
+                () -> new NullPointerException("존재하지 않는 사용자 입니다!")
+        );
     }
 
     //redis에 저장되어있는 message 들 출력
@@ -141,6 +213,11 @@ public class ChatService {
         return chatMessageRepository.findAllMessage(roomId);
     }
 
+    //최근 메시지부터 size 개씩, cursor 가 있으면 그 이전 메시지
+    public ChatMessagePageDto getMessagePage(String roomId, Long cursor, int size) {
+        return chatMessageRepository.findMessagePage(roomId, cursor, size);
+    }
+
     public String getFileUrl(MultipartFile file, UserDetailsImpl userDetails) {
         Long userId = userDetails.getUser().getId();
         userRepository.findById(userId).orElseThrow(
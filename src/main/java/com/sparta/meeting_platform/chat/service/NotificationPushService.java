@@ -0,0 +1,121 @@
+package com.sparta.meeting_platform.chat.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.meeting_platform.chat.dto.NotificationDto;
+import com.sparta.meeting_platform.chat.dto.UnreadEventDto;
+import com.sparta.meeting_platform.chat.dto.UnreadPushDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * 안 읽은 채팅 알림 push (/user/queue/notifications)
+ * - 메시지를 보낸 서버가 받는 사람 목록과 알림을 Redis chat.notify 채널로 발행하고,
+ *   모든 서버가 받아서 자기 서버에 웹소켓이 연결된 유저 것만 모아 둔다.
+ * - 모아 둔 알림은 interval 마다 유저별로 한번 보낸다. (채팅방별 늘어난 수 + 가장 최근 메시지)
+ * - 웹소켓 유저 이름은 유저 id (StompHandler 에서 CONNECT 때 설정)
+ */
+@Slf4j
+@Service
+public class NotificationPushService implements MessageListener {
+    public static final String NOTIFY_CHANNEL = "chat.notify";
+    public static final String DESTINATION = "/queue/notifications";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer redisMessageListener;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final SimpUserRegistry simpUserRegistry;
+    private final TaskScheduler notificationScheduler;
+    private final long intervalMillis;
+
+    // userId, (roomId, 모아 둔 알림)
+    private final Map<Long, Map<String, UnreadPushDto>> pending = new ConcurrentHashMap<>();
+
+    public NotificationPushService(StringRedisTemplate stringRedisTemplate, ObjectMapper objectMapper,
+                                   RedisMessageListenerContainer redisMessageListener,
+                                   SimpMessageSendingOperations messagingTemplate, SimpUserRegistry simpUserRegistry,
+                                   @Qualifier("notificationScheduler") TaskScheduler notificationScheduler,
+                                   @Value("${chat.notification.interval-ms:1000}") long intervalMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.redisMessageListener = redisMessageListener;
+        this.messagingTemplate = messagingTemplate;
+        this.simpUserRegistry = simpUserRegistry;
+        this.notificationScheduler = notificationScheduler;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @PostConstruct
+    private void init() {
+        redisMessageListener.addMessageListener(this, new ChannelTopic(NOTIFY_CHANNEL));
+        notificationScheduler.scheduleAtFixedRate(this::flush, Duration.ofMillis(intervalMillis));
+    }
+
+    // 메시지 하나에 대한 알림 발행 (받는 사람 전체를 한번에)
+    public void publish(List<Long> userIds, NotificationDto notificationDto) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(NOTIFY_CHANNEL,
+                    objectMapper.writeValueAsString(new UnreadEventDto(userIds, notificationDto)));
+        } catch (Exception e) {
+            log.error("알림 발행 실패 : {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            UnreadEventDto event = objectMapper.readValue(message.getBody(), UnreadEventDto.class);
+            NotificationDto notificationDto = event.getNotification();
+            for (Long userId : event.getUserIds()) {
+                // 이 서버에 연결되지 않은 유저는 다른 서버가 보낸다.
+                if (simpUserRegistry.getUser(String.valueOf(userId)) == null) {
+                    continue;
+                }
+                pending.compute(userId, (id, rooms) -> {
+                    Map<String, UnreadPushDto> result = rooms == null ? new LinkedHashMap<>() : rooms;
+                    result.computeIfAbsent(notificationDto.getRoomId(), UnreadPushDto::new).add(notificationDto);
+                    return result;
+                });
+            }
+        } catch (Exception e) {
+            log.error("알림 처리 실패 : {}", e.getMessage());
+        }
+    }
+
+    // 모아 둔 알림을 유저별로 한번에 전송
+    private void flush() {
+        for (Long userId : pending.keySet()) {
+            Map<String, UnreadPushDto> rooms = pending.remove(userId);
+            if (rooms == null) {
+                continue;
+            }
+            try {
+                List<UnreadPushDto> updates = new ArrayList<>(rooms.values());
+                messagingTemplate.convertAndSendToUser(String.valueOf(userId), DESTINATION, updates);
+            } catch (Exception e) {
+                log.error("알림 전송 실패 : {}", e.getMessage());
+            }
+        }
+    }
+}
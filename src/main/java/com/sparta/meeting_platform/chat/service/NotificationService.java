@@ -1,12 +1,8 @@
 package com.sparta.meeting_platform.chat.service;
 
 import com.sparta.meeting_platform.chat.dto.NotificationDto;
-import com.sparta.meeting_platform.chat.model.ChatMessage;
-import com.sparta.meeting_platform.chat.model.InvitedUsers;
-import com.sparta.meeting_platform.chat.repository.ChatMessageJpaRepository;
-import com.sparta.meeting_platform.chat.repository.InvitedUsersRepository;
+import com.sparta.meeting_platform.chat.repository.UnreadRepository;
 import com.sparta.meeting_platform.domain.Post;
-import com.sparta.meeting_platform.exception.PostApiException;
 import com.sparta.meeting_platform.repository.PostRepository;
 import com.sparta.meeting_platform.security.UserDetailsImpl;
 import com.sparta.meeting_platform.util.NotificationComparator;
@@ -15,50 +11,53 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
-    private final InvitedUsersRepository invitedUsersRepository;
-    private final ChatMessageJpaRepository chatMessageJpaRepository;
-
+    private final UnreadRepository unreadRepository;
     private final PostRepository postRepository;
 
-    @Transactional
+    // 안 읽은 채팅방별 최근 메시지 (Redis unread 카운터/버퍼, 채팅 기록은 읽지 않는다)
+    @Transactional(readOnly = true)
     public List<NotificationDto> getNotification(UserDetailsImpl userDetails) {
         Long userId = userDetails.getUser().getId();
-        Boolean readCheck = false;
-
         List<NotificationDto> notificationDtoList = new ArrayList<>();
-        List<InvitedUsers> invitedUsers = invitedUsersRepository.findAllByUserIdAndReadCheck(userId, readCheck);
+        Map<String, Long> counts = unreadRepository.getCounts(userId);
+        if (counts.isEmpty()) {
+            return notificationDtoList;
+        }
+        List<String> roomIds = new ArrayList<>(counts.keySet());
+        List<Long> postIds = new ArrayList<>();
+        for (String roomId : roomIds) {
+            postIds.add(Long.valueOf(roomId));
+        }
+        Map<String, String> titles = new HashMap<>();
+        for (Post post : postRepository.findAllById(postIds)) {
+            titles.put(String.valueOf(post.getId()), post.getTitle());
+        }
 
-        for (InvitedUsers invitedUser : invitedUsers) {
-            List<ChatMessage> findChatMessageDtoList = chatMessageJpaRepository.findAllByRoomId(String.valueOf(invitedUser.getPostId()));
-            for (ChatMessage findChatMessageDto : findChatMessageDtoList) {
-                if (Objects.equals(String.valueOf(invitedUser.getPostId()), findChatMessageDto.getRoomId())) {
-                    if (invitedUser.getReadCheckTime().isBefore(findChatMessageDto.getCreatedAt())) {
-                        Post post = postRepository.findById(Long.valueOf(findChatMessageDto.getRoomId())).orElseThrow(
-                                () -> new PostApiException("존재하지 않는 게시물 입니다.")
-                        );
-                        NotificationDto notificationDto = new NotificationDto();
-                        if(findChatMessageDto.getMessage().isEmpty()){
-                            notificationDto.setMessage("파일이 왔어요😲");
-                        }else {
-                            notificationDto.setMessage(findChatMessageDto.getMessage());
-                        }
-                        notificationDto.setNickname(findChatMessageDto.getSender());
-                        notificationDto.setCreatedAt(findChatMessageDto.getCreatedAt());
-                        notificationDto.setRoomId(findChatMessageDto.getRoomId());
-                        notificationDto.setTitle(post.getTitle());
-                        notificationDtoList.add(notificationDto);
-                    }
-                }
+        List<String> removedRoomIds = new ArrayList<>();
+        List<List<NotificationDto>> latest = unreadRepository.getLatest(userId, roomIds);
+        for (int i = 0; i < roomIds.size(); i++) {
+            String roomId = roomIds.get(i);
+            String title = titles.get(roomId);
+            // 게시글이 없어진 채팅방
+            if (title == null) {
+                removedRoomIds.add(roomId);
+                continue;
+            }
+            for (NotificationDto notificationDto : latest.get(i)) {
+                notificationDto.setTitle(title);
+                notificationDto.setUnreadCount(counts.get(roomId));
+                notificationDtoList.add(notificationDto);
             }
         }
+        unreadRepository.clear(userId, removedRoomIds);
         notificationDtoList.sort(new NotificationComparator());
         return notificationDtoList;
     }
 }
-
@@ -0,0 +1,189 @@
+package com.sparta.meeting_platform.chat.service;
+
+import com.sparta.meeting_platform.chat.repository.ChatRoomMemberRepository;
+import com.sparta.meeting_platform.util.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 채팅방 입장/퇴장 표시(invited_users.read_check, read_check_time)를 모아서 저장
+ * - read:receipt (HASH) : "{userId}:{roomId}" -> "1" (채팅방 안) / "0:{epoch ms}" (채팅방 밖, 나간 시각)
+ *   같은 유저/채팅방은 마지막 것만 남는다.
+ * - interval 마다 한 서버가 통째로 가져가(HGETALL + DEL) batch UPDATE 로 반영하고, 실패하면 더 새 값이 없을 때만 되돌려 놓는다.
+ * 메시지 발행때 읽는 채팅방 참여자(ChatRoomMemberRepository)에도 바로 반영한다. (입장은 invited_users 커밋 이후)
+ * 메시지 발행때 읽는 채팅방 참여자(ChatRoomMemberRepository)에도 바로 반영한다.
+ */
+@Slf4j
+@Service
+public class ReadReceiptService {
+    private static final String RECEIPT_KEY = "read:receipt";
+    private static final String IN_ROOM = "1";
+    private static final String AWAY = "0:";
+
+    private static final String ENTER_SQL =
+            "UPDATE invited_users SET read_check = true WHERE user_id = ? AND post_id = ?";
+    // 이미 밖에 있으면 나간 시각을 바꾸지 않는다.
+    private static final String AWAY_SQL =
+            "UPDATE invited_users SET read_check = false, read_check_time = ? "
+                    + "WHERE user_id = ? AND post_id = ? AND read_check = true";
+
+    // 모아 둔 값 전부 가져가기 [field, value, field, value ...]
+    private static final RedisScript<List> TAKE = new DefaultRedisScript<>(
+            "local receipts = redis.call('HGETALL', KEYS[1]) "
+                    + "redis.call('DEL', KEYS[1]) "
+                    + "return receipts", List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChatRoomMemberRepository chatRoomMemberRepository;
+    private final TaskScheduler readReceiptScheduler;
+    private final long intervalMillis;
+
+    public ReadReceiptService(StringRedisTemplate stringRedisTemplate, JdbcTemplate jdbcTemplate,
+                              ChatRoomMemberRepository chatRoomMemberRepository,
+                              @Qualifier("readReceiptScheduler") TaskScheduler readReceiptScheduler,
+                              @Value("${chat.read-receipt.interval-ms:500}") long intervalMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chatRoomMemberRepository = chatRoomMemberRepository;
+        this.readReceiptScheduler = readReceiptScheduler;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @PostConstruct
+    private void init() {
+        readReceiptScheduler.scheduleWithFixedDelay(this::flush, Duration.ofMillis(intervalMillis));
+    }
+
+    // 채팅방 입장 (트랜잭션 커밋 이후)
+    // 같은 트랜잭션에서 저장한 invited_users 행이 커밋되기 전에 flush 되면 UPDATE 가 0건이 되어 입장 표시가 사라진다.
+    public void enter(Long userId, String roomId) {
+        TransactionCallbacks.afterCommit(() -> {
+            record(Collections.singletonMap(field(userId, roomId), IN_ROOM));
+            chatRoomMemberRepository.enter(userId, roomId);
+        });
+    }
+
+    // 채팅방 밖 (게시글 상세, 채팅 목록 조회)
+    public void away(Long userId, Collection<String> roomIds) {
+        String value = AWAY + System.currentTimeMillis();
+        Map<String, String> receipts = new HashMap<>();
+        for (String roomId : roomIds) {
+            receipts.put(field(userId, roomId), value);
+        }
+        record(receipts);
+        chatRoomMemberRepository.away(userId, roomIds);
+    }
+
+    private void record(Map<String, String> receipts) {
+        if (receipts.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForHash().putAll(RECEIPT_KEY, receipts);
+        } catch (Exception e) {
+            log.error("읽음 표시 저장 실패 : {}", e.getMessage());
+        }
+    }
+
+    // DB 의 채팅방 안에 있는지(readCheck) 값에 아직 반영 안 된 입장/퇴장을 덮어쓴다.
+    public Map<Long, Boolean> overlay(String roomId, Map<Long, Boolean> readChecks) {
+        if (readChecks.isEmpty()) {
+            return readChecks;
+        }
+        List<Long> userIds = new ArrayList<>(readChecks.keySet());
+        List<Object> fields = new ArrayList<>();
+        for (Long userId : userIds) {
+            fields.add(field(userId, roomId));
+        }
+        try {
+            List<Object> values = stringRedisTemplate.opsForHash().multiGet(RECEIPT_KEY, fields);
+            for (int i = 0; i < userIds.size(); i++) {
+                Object value = values.get(i);
+                if (value != null) {
+                    readChecks.put(userIds.get(i), IN_ROOM.equals(value));
+                }
+            }
+        } catch (Exception e) {
+            log.error("읽음 표시 조회 실패 : {}", e.getMessage());
+        }
+        return readChecks;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void flush() {
+        List<String> receipts;
+        try {
+            receipts = stringRedisTemplate.execute(TAKE, Collections.singletonList(RECEIPT_KEY));
+        } catch (Exception e) {
+            log.error("읽음 표시 가져오기 실패 : {}", e.getMessage());
+            return;
+        }
+        if (receipts == null || receipts.isEmpty()) {
+            return;
+        }
+        List<Object[]> enters = new ArrayList<>();
+        List<Object[]> aways = new ArrayList<>();
+        for (int i = 0; i + 1 < receipts.size(); i += 2) {
+            String[] ids = receipts.get(i).split(":");
+            Long userId = Long.parseLong(ids[0]);
+            Long postId = Long.parseLong(ids[1]);
+            String value = receipts.get(i + 1);
+            if (IN_ROOM.equals(value)) {
+                enters.add(new Object[]{userId, postId});
+            } else {
+                Timestamp readCheckTime = new Timestamp(Long.parseLong(value.substring(AWAY.length())));
+                aways.add(new Object[]{readCheckTime, userId, postId});
+            }
+        }
+        try {
+            if (!enters.isEmpty()) {
+                jdbcTemplate.batchUpdate(ENTER_SQL, enters);
+            }
+            if (!aways.isEmpty()) {
+                jdbcTemplate.batchUpdate(AWAY_SQL, aways);
+            }
+        } catch (Exception e) {
+            log.error("읽음 표시 {}건 DB 반영 실패 : {}", receipts.size() / 2, e.getMessage());
+            restore(receipts);
+        }
+    }
+
+    // 그 사이 새로 들어온 값이 있으면 그것을 남긴다.
+    private void restore(List<String> receipts) {
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+                for (int i = 0; i + 1 < receipts.size(); i += 2) {
+                    stringRedisConnection.hSetNX(RECEIPT_KEY, receipts.get(i), receipts.get(i + 1));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("읽음 표시 되돌리기 실패 : {}", e.getMessage());
+        }
+    }
+
+    private static String field(Long userId, String roomId) {
+        return userId + ":" + roomId;
+    }
+}
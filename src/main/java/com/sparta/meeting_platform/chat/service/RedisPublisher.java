@@ -1,19 +1,34 @@
 package com.sparta.meeting_platform.chat.service;
 
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sparta.meeting_platform.chat.dto.ChatMessageDto;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.RedisTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class RedisPublisher {
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
 
-    // websocket 에서 받아온 메세지를 convertAndSend 를 통하여 Redis 의 messageListener 로 발행
+    // websocket 에서 받아온 메세지를 JSON 으로 한번만 바꿔 Redis 의 messageListener 로 발행
+    // (RedisSubscriber 는 이 JSON 을 그대로 구독자에게 보낸다)
     public void publish(ChannelTopic topic, ChatMessageDto messageDto) {
-        redisTemplate.convertAndSend(topic.getTopic(), messageDto);
+        try {
+            byte[] channel = topic.getTopic().getBytes(StandardCharsets.UTF_8);
+            byte[] body = objectMapper.writeValueAsBytes(messageDto);
+            stringRedisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, body));
+        } catch (JsonProcessingException e) {
+            log.error("채팅 메시지 발행 실패 : {}", e.getMessage());
+        }
     }
 }
@@ -1,36 +1,52 @@
 package com.sparta.meeting_platform.chat.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.sparta.meeting_platform.chat.dto.ChatMessageDto;
+import com.sparta.meeting_platform.chat.repository.ChatRoomRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.connection.MessageListener;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class RedisSubscriber implements MessageListener {
-    private final ObjectMapper objectMapper;
-    private final RedisTemplate redisTemplate;
     private final SimpMessageSendingOperations messagingTemplate;
+    private final RedisMessageListenerContainer redisMessageListener;
+
+    // 서버마다 채팅방 채널 전체(chat.room.*)를 한번만 구독한다. (채팅방이 늘어도 리스너는 하나)
+    @PostConstruct
+    private void init() {
+        redisMessageListener.addMessageListener(this, new PatternTopic(ChatRoomRepository.TOPIC_PREFIX + "*"));
+    }
+
     /**
      * Redis에서 메시지가 발행(publish)되면 대기하고 있던 onMessage가 해당 메시지를 받아 처리한다.
+     * 채널 이름(chat.room.{roomId})의 방 번호로 구독 경로를 정하고,
+     * 발행할 때 만든 JSON 을 다시 읽거나 변환하지 않고 그대로 Websocket 구독자에게 보낸다.
      */
     @Override
     public void onMessage(Message message, byte[] pattern) {
         try {
-            // redis에서 발행된 데이터를 받아 deserialize
-            String publishMessage = (String) redisTemplate.getStringSerializer().deserialize(message.getBody());
-            // ChatMessage 객채로 맵핑
-            ChatMessageDto roomMessage = objectMapper.readValue(publishMessage, ChatMessageDto.class);
-            // Websocket 구독자에게 채팅 메시지 Send
-            messagingTemplate.convertAndSend("/sub/chat/room/" + roomMessage.getRoomId(), roomMessage);
+            String roomId = new String(message.getChannel(), StandardCharsets.UTF_8)
+                    .substring(ChatRoomRepository.TOPIC_PREFIX.length());
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            accessor.setLeaveMutable(true);
+            messagingTemplate.send("/sub/chat/room/" + roomId,
+                    MessageBuilder.createMessage(message.getBody(), accessor.getMessageHeaders()));
         } catch (Exception e) {
             log.error(e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package com.sparta.meeting_platform.chat.videoChat;
 
 import com.sparta.meeting_platform.chat.model.InvitedUsers;
+import com.sparta.meeting_platform.chat.repository.ChatRoomMemberRepository;
+import com.sparta.meeting_platform.chat.repository.ChatRoomSummaryRepository;
 import com.sparta.meeting_platform.chat.repository.InvitedUsersRepository;
 import com.sparta.meeting_platform.domain.Post;
 import com.sparta.meeting_platform.domain.User;
@@ -10,6 +12,7 @@ import com.sparta.meeting_platform.exception.PostApiException;
 import com.sparta.meeting_platform.exception.UserApiException;
 import com.sparta.meeting_platform.repository.PostRepository;
 import com.sparta.meeting_platform.repository.UserRepository;
+import com.sparta.meeting_platform.service.PostAggregateService;
 import io.openvidu.java.client.*;
 import lombok.extern.slf4j.Slf4j;
 import org.json.simple.parser.ParseException;
@@ -19,6 +22,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -33,6 +37,9 @@ public class SessionService {
     private UserRepository userRepository;
     private PostRepository postRepository;
     private InvitedUsersRepository invitedUsersRepository;
+    private PostAggregateService postAggregateService;
+    private ChatRoomSummaryRepository chatRoomSummaryRepository;
+    private ChatRoomMemberRepository chatRoomMemberRepository;
 
     // session이름, openvidu session 객체
     private Map<String, Session> mapSessions = new ConcurrentHashMap<>();
@@ -52,13 +59,19 @@ public class SessionService {
             @Value("${openvidu.url}") String openviduUrl,
             UserRepository userRepository,
             PostRepository postRepository,
-            InvitedUsersRepository invitedUsersRepository) {
+            InvitedUsersRepository invitedUsersRepository,
+            PostAggregateService postAggregateService,
+            ChatRoomSummaryRepository chatRoomSummaryRepository,
+            ChatRoomMemberRepository chatRoomMemberRepository) {
         this.SECRET = secret;
         this.OPENVIDU_URL = openviduUrl;
         this.openVidu = new OpenVidu(OPENVIDU_URL, SECRET);
         this.userRepository = userRepository;
         this.postRepository = postRepository;
         this.invitedUsersRepository = invitedUsersRepository;
+        this.postAggregateService = postAggregateService;
+        this.chatRoomSummaryRepository = chatRoomSummaryRepository;
+        this.chatRoomMemberRepository = chatRoomMemberRepository;
     }
 
     // 화상 채팅 방 입장
@@ -73,6 +86,9 @@ public class SessionService {
         if(post.getPersonnel() <= invitedUsersRepository.countByPostId(postId))throw new ChatApiException("정원이 초과하여 입장할 수 없습니다.");
         InvitedUsers invitedUsers = new InvitedUsers(postId, user);
         invitedUsersRepository.save(invitedUsers);
+        postAggregateService.join(postId, user.getMannerTemp());
+        chatRoomSummaryRepository.join(userId, String.valueOf(postId));
+        chatRoomMemberRepository.join(userId, String.valueOf(postId));
 
         // 화상 채팅방 id
         String roomId = String.valueOf(postId);
@@ -105,7 +121,10 @@ public class SessionService {
         if(post == null)throw new ChatApiException("해당 게시글을 찾을 수 없습니다.");
 
         // 채팅방 참가자 테이블 관리
-        invitedUsersRepository.deleteByUserIdAndPostId(userId, requestDto.getPostId());
+        long count = invitedUsersRepository.deleteByUserIdAndPostId(userId, requestDto.getPostId());
+        postAggregateService.leave(requestDto.getPostId(), user.getMannerTemp(), count);
+        chatRoomSummaryRepository.leave(userId, String.valueOf(requestDto.getPostId()));
+        chatRoomMemberRepository.leave(userId, Collections.singletonList(String.valueOf(requestDto.getPostId())));
 
         // 화상 채팅방 id
         String roomId = String.valueOf(requestDto.getPostId());
@@ -5,6 +5,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurerSupport;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import java.util.concurrent.Executor;
 
@@ -28,4 +29,67 @@ public class AsyncConfig extends AsyncConfigurerSupport {
         return executor;
     }
 
+    // 메인 피드 섹션(realTime, endTime, manner) 병렬 조회용
+    @Bean(name = "feedExecutor")
+    public Executor feedExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(6);
+        executor.setMaxPoolSize(12);
+//        큐가 가득 차면 RejectedExecutionException -> 해당 섹션은 빈 목록으로 응답
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("FeedExecutor-");
+        executor.initialize();
+        return executor;
+    }
+
+    // 게시글 만료 처리 예약용 (다음 만료 시각에 한번 실행, Scheduler 참고)
+    @Bean(name = "expiryScheduler")
+    public ThreadPoolTaskScheduler expiryScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("ExpiryScheduler-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    // 락 연장용 (작업이 오래 걸려도 lease 가 만료되지 않게, LeaseLockService 참고)
+    @Bean(name = "leaseScheduler")
+    public ThreadPoolTaskScheduler leaseScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("LeaseScheduler-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    // 안 읽은 채팅 알림 모아서 보내기용 (NotificationPushService 참고)
+    @Bean(name = "notificationScheduler")
+    public ThreadPoolTaskScheduler notificationScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("NotificationScheduler-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    // 채팅방 입장/퇴장 표시 모아서 저장용 (ReadReceiptService 참고)
+    @Bean(name = "readReceiptScheduler")
+    public ThreadPoolTaskScheduler readReceiptScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("ReadReceiptScheduler-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    // 채팅방 접속 세션 heartbeat 용 (ChatPresenceService 참고)
+    @Bean(name = "presenceScheduler")
+    public ThreadPoolTaskScheduler presenceScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("PresenceScheduler-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
 }
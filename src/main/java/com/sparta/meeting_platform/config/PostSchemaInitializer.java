@@ -0,0 +1,182 @@
+package com.sparta.meeting_platform.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/*
+ * ddl-auto=update 로는 만들어지지 않는 post 테이블 인덱스를 서버 기동시 보정한다.
+ * (엔티티에 선언한 채팅방 인덱스도 ddl-auto 가 만들지 못하고 넘어갔으면 여기서 만든다)
+ * - location : 반경 검색시 MBRContains 선필터에 사용되는 SPATIAL INDEX
+ * - (time, id) : 무한 스크롤 커서(약속시간, id) 조회, 만료 게시글 조회
+ * - post_aggregate (avg_temp) : (avg_temp, post_id) 인덱스로 대체되어 삭제
+ * - chat_room (room_id) UNIQUE, resign_chat_room (room_id) : 채팅방 보관/메시지 저장이 room_id 로 행을 잠그므로
+ *   인덱스가 없으면 테이블 전체를 잠근다. (ChatRoomArchiveService, ChatMessageWriter)
+ *   chat_room 에 같은 room_id 가 여러 행 있으면 만들지 않고 실패로 처리한다. (직접 정리 후 재기동)
+ * - post_post_urls.post_url_order : ddl-auto 가 컬럼을 추가하면 기존 행은 모두 0 이므로,
+ *   게시글마다 저장된 순서(행 순서)대로 0, 1, 2 ... 로 다시 매긴다. (같은 순서 값이 있으면 목록을 읽을 때 이미지가 사라진다)
+ * - time 컬럼이 문자열(varchar)로 만들어진 기존 DB 는 DATETIME 으로 바꾼다. ("yyyy-MM-dd HH:mm:ss" 값은 그대로 변환된다)
+ * - location 이 NULL 이거나 SRID 가 0 이 아닌 행은 컬럼 변경이 실패하므로 latitude/longitude 로 먼저 채운다.
+ *   좌표도 없는 행이 남아 있으면 변경하지 않고 실패로 처리한다. (직접 정리 후 재기동)
+ * 실패하면 health(postSchema) 를 DOWN 으로 표시하고, post.schema.fail-on-error=true(기본) 면 기동을 중단한다.
+ * 다른 ApplicationReadyEvent 리스너(위치 인덱스 생성 등)보다 먼저 실행한다.
+ */
+@Slf4j
+@Component("postSchema")
+public class PostSchemaInitializer implements HealthIndicator {
+    private static final String SPATIAL_INDEX = "idx_post_location";
+    private static final String TIME_INDEX = "idx_post_time_id";
+    // (avg_temp, post_id) 로 바뀌어 필요 없어진 인덱스 (PostAggregate 참고)
+    private static final String OLD_AVG_TEMP_INDEX = "idx_post_aggregate_avg_temp";
+    // ChatRoom, ResignChatRoom 엔티티와 같은 이름
+    private static final String CHAT_ROOM_INDEX = "uk_chat_room_room_id";
+    private static final String RESIGN_CHAT_ROOM_INDEX = "idx_resign_chat_room_room_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean failOnError;
+    private volatile String error; // 마지막 실패 사유 (성공이면 null)
+
+    public PostSchemaInitializer(JdbcTemplate jdbcTemplate,
+                                 @Value("${post.schema.fail-on-error:true}") boolean failOnError) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.failOnError = failOnError;
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        try {
+            if (!"datetime".equalsIgnoreCase(columnType("post", "time"))) {
+                jdbcTemplate.execute("ALTER TABLE post MODIFY time DATETIME NOT NULL");
+                log.info("post.time DATETIME 변경 완료");
+            }
+            if (!existsIndex("post", SPATIAL_INDEX)) {
+                // 기존 컬럼은 NULL 허용 + SRID 미지정 상태라 공간 인덱스를 타지 않으므로 먼저 컬럼을 바꿔준다.
+                backfillLocation();
+                jdbcTemplate.execute("ALTER TABLE post MODIFY location POINT NOT NULL SRID 0");
+                jdbcTemplate.execute("CREATE SPATIAL INDEX " + SPATIAL_INDEX + " ON post (location)");
+                log.info("post.location SPATIAL INDEX 생성 완료");
+            }
+            if (!existsIndex("post", TIME_INDEX)) {
+                jdbcTemplate.execute("CREATE INDEX " + TIME_INDEX + " ON post (time, id)");
+                log.info("post (time, id) INDEX 생성 완료");
+            }
+            if (hasDuplicatedUrlOrder()) {
+                int count = renumberPostUrls();
+                log.info("post_post_urls 순서 보정 완료 : {}건", count);
+            }
+            if (existsIndex("post_aggregate", OLD_AVG_TEMP_INDEX)) {
+                jdbcTemplate.execute("DROP INDEX " + OLD_AVG_TEMP_INDEX + " ON post_aggregate");
+                log.info("post_aggregate (avg_temp) INDEX 삭제 완료");
+            }
+            if (!existsIndex("chat_room", CHAT_ROOM_INDEX)) {
+                checkDuplicatedRoomId();
+                jdbcTemplate.execute("CREATE UNIQUE INDEX " + CHAT_ROOM_INDEX + " ON chat_room (room_id)");
+                log.info("chat_room (room_id) UNIQUE INDEX 생성 완료");
+            }
+            if (!existsIndex("resign_chat_room", RESIGN_CHAT_ROOM_INDEX)) {
+                jdbcTemplate.execute("CREATE INDEX " + RESIGN_CHAT_ROOM_INDEX + " ON resign_chat_room (room_id)");
+                log.info("resign_chat_room (room_id) INDEX 생성 완료");
+            }
+            error = null;
+        } catch (Exception e) {
+            error = e.getMessage();
+            log.error("post 테이블 인덱스 생성 실패 : {}", e.getMessage());
+            if (failOnError) {
+                throw new IllegalStateException("post 테이블 인덱스 생성 실패", e);
+            }
+        }
+    }
+
+    @Override
+    public Health health() {
+        return error == null
+                ? Health.up().build()
+                : Health.down().withDetail("error", error).build();
+    }
+
+    // NOT NULL SRID 0 으로 바꾸기 전에 location 을 좌표로 채우고, SRID 를 0 으로 맞춘다.
+    private void backfillLocation() {
+        int filled = jdbcTemplate.update("UPDATE post SET location = ST_SRID(POINT(longitude, latitude), 0) "
+                + "WHERE location IS NULL AND latitude IS NOT NULL AND longitude IS NOT NULL");
+        int converted = jdbcTemplate.update("UPDATE post SET location = ST_SRID(location, 0) "
+                + "WHERE location IS NOT NULL AND ST_SRID(location) <> 0");
+        if (filled > 0 || converted > 0) {
+            log.info("post.location 보정 : 좌표로 채움 {}건, SRID 변경 {}건", filled, converted);
+        }
+        Integer missing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM post WHERE location IS NULL", Integer.class);
+        if (missing != null && missing > 0) {
+            throw new IllegalStateException("location, 좌표가 모두 없는 게시글 " + missing + "건 (정리 후 재기동 필요)");
+        }
+    }
+
+    private void checkDuplicatedRoomId() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT 1 FROM chat_room GROUP BY room_id HAVING COUNT(*) > 1) AS d", Integer.class);
+        if (count != null && count > 0) {
+            throw new IllegalStateException("room_id 가 중복된 채팅방 " + count + "건 (정리 후 재기동 필요)");
+        }
+    }
+
+    private boolean hasDuplicatedUrlOrder() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT 1 FROM post_post_urls "
+                        + "GROUP BY post_id, post_url_order HAVING COUNT(*) > 1 LIMIT 1) AS d", Integer.class);
+        return count != null && count > 0;
+    }
+
+    // 임시 테이블에 순서를 매겨 옮긴 뒤 한 트랜잭션에서 바꿔 넣는다. (임시 테이블은 커넥션 단위라 한 커넥션에서 실행)
+    private int renumberPostUrls() {
+        Integer count = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TEMPORARY TABLE post_post_urls_order AS "
+                        + "SELECT post_id, post_url, ROW_NUMBER() OVER (PARTITION BY post_id) - 1 AS post_url_order "
+                        + "FROM post_post_urls");
+                try {
+                    connection.setAutoCommit(false);
+                    statement.executeUpdate("DELETE FROM post_post_urls");
+                    int inserted = statement.executeUpdate("INSERT INTO post_post_urls (post_id, post_url, post_url_order) "
+                            + "SELECT post_id, post_url, post_url_order FROM post_post_urls_order");
+                    connection.commit();
+                    return inserted;
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                    statement.execute("DROP TEMPORARY TABLE IF EXISTS post_post_urls_order");
+                }
+            }
+        });
+        return count == null ? 0 : count;
+    }
+
+    private String columnType(String table, String column) {
+        List<String> types = jdbcTemplate.queryForList(
+                "SELECT data_type FROM information_schema.columns "
+                        + "WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?",
+                String.class, table, column);
+        return types.isEmpty() ? null : types.get(0);
+    }
+
+    private boolean existsIndex(String table, String index) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics "
+                        + "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?",
+                Integer.class, table, index);
+        return count != null && count > 0;
+    }
+}
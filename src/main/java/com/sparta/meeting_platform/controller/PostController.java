@@ -60,9 +60,10 @@ public class PostController {
             @RequestParam(value = "latitude") Double latitude,
             @RequestParam(value = "longitude") Double longitude,
             @RequestParam(value = "size") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
             @AuthenticationPrincipal UserDetailsImpl userDetails) throws org.locationtech.jts.io.ParseException {
         Long userId = getUserId(userDetails);
-        return postService.getCategoriesInfiniteScroll(lastId, categories, latitude, longitude, userId, size);
+        return postService.getCategoriesInfiniteScroll(lastId, cursor, categories, latitude, longitude, userId, size);
     }
 
     //태그별 게시글 조회
@@ -84,9 +85,10 @@ public class PostController {
             @RequestParam(value = "latitude") Double latitude,
             @RequestParam(value = "longitude") Double longitude,
             @RequestParam(value = "size") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
             @AuthenticationPrincipal UserDetailsImpl userDetails) throws org.locationtech.jts.io.ParseException {
         Long userId = getUserId(userDetails);
-        return postService.gettagsInfiniteScroll(lastId, tags, latitude, longitude, userId, size);
+        return postService.gettagsInfiniteScroll(lastId, cursor, tags, latitude, longitude, userId, size);
     }
 
     //게시글 더보기 조회
@@ -107,9 +109,10 @@ public class PostController {
             @RequestParam(value = "longitude") Double longitude,
             @RequestParam(value = "status") String status,
             @RequestParam(value = "size") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
             @AuthenticationPrincipal UserDetailsImpl userDetails) throws ParseException {
         Long userId = getUserId(userDetails);
-        return postService.morePostListInfiniteScroll(lastId, userId,status,latitude,longitude,size);
+        return postService.morePostListInfiniteScroll(lastId, cursor, userId,status,latitude,longitude,size);
     }
 
     //게시글 상세 조회
@@ -0,0 +1,21 @@
+package com.sparta.meeting_platform.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/*
+ * 락 이름별 마지막으로 반영한 fencing token (LeaseLockService.fence 참고)
+ * 락으로 보호하는 작업은 같은 트랜잭션에서 이 행을 자기 token 으로 올리고 잠근다.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+public class LeaseFence {
+    @Id
+    private String name;
+
+    private long token;
+}
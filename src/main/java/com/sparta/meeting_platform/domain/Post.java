@@ -1,9 +1,11 @@
 package com.sparta.meeting_platform.domain;
 
 import com.sparta.meeting_platform.dto.PostDto.PostRequestDto;
+import com.sparta.meeting_platform.util.PostTimeFormatter;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.locationtech.jts.geom.Point;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -29,8 +31,9 @@ public class Post {
     @Column
     private String content;
 
-    @Column(nullable = false)
-    private String time;
+    // 약속시간, (time, id) 인덱스 (PostSchemaInitializer 참고)
+    @Column(nullable = false, columnDefinition = "DATETIME")
+    private LocalDateTime time;
 
     @Column(nullable = false)
     private int personnel;
@@ -52,8 +55,11 @@ public class Post {
     @Column(nullable = false)
     private Boolean isLetter;
 
+    // 첫번째 이미지가 대표 이미지 (post_url_order 순서, PostSchemaInitializer 참고)
     @ElementCollection
     @CollectionTable
+    @BatchSize(size = 100)
+    @OrderColumn(name = "post_url_order")
     @Column(name = "postUrl")
     private List<String> postUrls;
 
@@ -62,7 +68,8 @@ public class Post {
     @Column(name = "tag")
     private List<String> tags;
 
-    @Column
+    // SPATIAL INDEX 는 NOT NULL + SRID 가 지정된 컬럼에만 적용된다 (PostSchemaInitializer 참고)
+    @Column(nullable = false, columnDefinition = "POINT SRID 0")
     private Point location;
 
     @Column
@@ -78,7 +85,7 @@ public class Post {
         this.user = user;
         this.title = requestDto.getTitle();
         this.content = requestDto.getContent();
-        this.time = requestDto.getTime();
+        this.time = PostTimeFormatter.parse(requestDto.getTime());
         this.personnel = requestDto.getPersonnel();
         this.place = requestDto.getPlace();
         this.isLetter = requestDto.getIsLetter();
@@ -94,7 +101,7 @@ public class Post {
 
     public void update(Double longitude,Double latitude,PostRequestDto requestDto,Point location) {
         this.title = requestDto.getTitle();
-        this.time = requestDto.getTime();
+        this.time = PostTimeFormatter.parse(requestDto.getTime());
         this.content = requestDto.getContent();
         this.personnel = requestDto.getPersonnel();
         this.place = requestDto.getPlace();
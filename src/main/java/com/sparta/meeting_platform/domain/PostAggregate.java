@@ -0,0 +1,29 @@
+package com.sparta.meeting_platform.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/*
+ * 게시글별 참여인원, 참여자 매너온도 합계/평균
+ * invited_users, userinfo.manner_temp 가 바뀔때 PostAggregateService 에서 같은 트랜잭션으로 갱신한다.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+// 매너온도순 목록/커서 (avg_temp DESC, post_id DESC) 를 역방향 스캔으로 처리
+@Table(indexes = @Index(name = "idx_post_aggregate_avg_temp_post_id", columnList = "avgTemp, postId"))
+public class PostAggregate {
+    @Id
+    private Long postId;
+
+    @Column(nullable = false)
+    private int joinCount;
+
+    @Column(nullable = false)
+    private long mannerTempSum;
+
+    @Column(nullable = false)
+    private double avgTemp;
+}
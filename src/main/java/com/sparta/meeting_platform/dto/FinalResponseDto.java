@@ -39,6 +39,7 @@ public class FinalResponseDto<T> {
     private VideoChatResponseDto videoChatResponseDto;
     private Boolean checkedOnboard;
     private Boolean agreedLbs;
+    private String cursor;
 
 
     public FinalResponseDto(boolean response, String message, Long postId, List<String> postUrls) {
@@ -93,6 +94,14 @@ public class FinalResponseDto<T> {
         this.isOwner = isOwner;
     }
 
+    public FinalResponseDto(boolean response, String message, List<T> List, boolean isOwner, String cursor) {
+        this.response = response;
+        this.message = message;
+        this.List = List;
+        this.isOwner = isOwner;
+        this.cursor = cursor;
+    }
+
     public FinalResponseDto(boolean response, String message, PostResponseDto postResponseDto, boolean isOwner) {
         this.response = response;
         this.message = message;
@@ -0,0 +1,50 @@
+package com.sparta.meeting_platform.dto.PostDto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 피드 캐시(FeedCacheService)에 저장되는 유저 공통 게시글 목록
+ * 찜 여부, 거리는 조회한 유저 기준으로 다시 채운다.
+ */
+@Getter
+@NoArgsConstructor
+public class FeedDto {
+    private Map<String, List<PostResponseDto>> sections = new HashMap<>();
+    private long cachedAt;
+    // 일부 섹션 조회에 실패한 경우 (캐시에 저장하지 않는다)
+    @JsonIgnore
+    private boolean partial;
+
+    public FeedDto(Map<String, List<PostResponseDto>> sections) {
+        this(sections, false);
+    }
+
+    public FeedDto(Map<String, List<PostResponseDto>> sections, boolean partial) {
+        this.sections = sections;
+        this.cachedAt = System.currentTimeMillis();
+        this.partial = partial;
+    }
+
+    public List<PostResponseDto> getSection(String name) {
+        List<PostResponseDto> section = sections.get(name);
+        return section == null ? new ArrayList<>() : section;
+    }
+
+    @JsonIgnore
+    public List<Long> getPostIds() {
+        List<Long> postIds = new ArrayList<>();
+        for (List<PostResponseDto> section : sections.values()) {
+            for (PostResponseDto postResponseDto : section) {
+                postIds.add(postResponseDto.getPostId());
+            }
+        }
+        return postIds;
+    }
+}
@@ -0,0 +1,61 @@
+package com.sparta.meeting_platform.dto.PostDto;
+
+import lombok.Getter;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/*
+ * 게시글 목록 카드 한장에 필요한 컬럼만 읽은 결과 (PostCardService 참고)
+ * 엔티티가 아니므로 영속성 컨텍스트에 올라가지 않는다.
+ */
+@Getter
+public class PostCardDto {
+    private final Long id;
+    private final String title;
+    private final String content;
+    private final LocalDateTime time;
+    private final int personnel;
+    private final String place;
+    private final Boolean isLetter;
+    private final Double latitude;
+    private final Double longitude;
+    private final String postUrl;
+    private final int joinCount;
+    private final long mannerTempSum;
+    private final double avgTempKey; // post_aggregate.avg_temp (매너온도순 커서 값)
+    private final Boolean isLike;
+    private final long distance; // m
+
+    // PostCardService.SELECT_CARD 컬럼 순서
+    public PostCardDto(Object[] row) {
+        this.id = ((Number) row[0]).longValue();
+        this.title = (String) row[1];
+        this.content = (String) row[2];
+        this.time = ((Timestamp) row[3]).toLocalDateTime();
+        this.personnel = ((Number) row[4]).intValue();
+        this.place = (String) row[5];
+        this.isLetter = toBoolean(row[6]);
+        this.latitude = row[7] == null ? null : ((Number) row[7]).doubleValue();
+        this.longitude = row[8] == null ? null : ((Number) row[8]).doubleValue();
+        this.postUrl = (String) row[9];
+        this.joinCount = ((Number) row[10]).intValue();
+        this.mannerTempSum = ((Number) row[11]).longValue();
+        this.avgTempKey = ((Number) row[12]).doubleValue();
+        this.isLike = toBoolean(row[13]);
+        this.distance = ((Number) row[14]).longValue();
+    }
+
+    // 참여자가 없으면 0
+    public int getAvgTemp() {
+        return joinCount > 0 ? (int) (mannerTempSum / joinCount) : 0;
+    }
+
+    // bit(1) 컬럼은 Boolean, EXISTS 결과는 숫자로 넘어온다.
+    private static Boolean toBoolean(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Boolean ? (Boolean) value : ((Number) value).intValue() != 0;
+    }
+}
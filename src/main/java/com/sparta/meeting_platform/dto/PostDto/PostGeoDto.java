@@ -0,0 +1,73 @@
+package com.sparta.meeting_platform.dto.PostDto;
+
+import com.sparta.meeting_platform.domain.Post;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * 메모리 위치 인덱스(PostGeoIndexService)에 올라가는 게시글 요약 정보
+ * 검색 결과로 나갈때만 거리값을 채운 복사본을 만든다.
+ */
+@Getter
+public class PostGeoDto {
+    public static final List<String> CATEGORIES
+            = Arrays.asList("맛집", "카페", "노래방", "운동", "친목", "전시", "여행", "쇼핑", "스터디", "게임");
+
+    private final Long id;
+    private final double latitude;
+    private final double longitude;
+    private final LocalDateTime time;
+    private final int personnel;
+    private final int categoryBits;
+    private final Set<String> tags;
+    private final long distance;
+
+    public PostGeoDto(Post post) {
+        this.id = post.getId();
+        this.latitude = post.getLatitude();
+        this.longitude = post.getLongitude();
+        this.time = post.getTime();
+        this.personnel = post.getPersonnel();
+        this.categoryBits = toCategoryBits(post.getCategories());
+        this.tags = post.getTags() == null
+                ? Collections.<String>emptySet()
+                : Collections.unmodifiableSet(new HashSet<>(post.getTags()));
+        this.distance = 0L;
+    }
+
+    private PostGeoDto(PostGeoDto origin, long distance) {
+        this.id = origin.id;
+        this.latitude = origin.latitude;
+        this.longitude = origin.longitude;
+        this.time = origin.time;
+        this.personnel = origin.personnel;
+        this.categoryBits = origin.categoryBits;
+        this.tags = origin.tags;
+        this.distance = distance;
+    }
+
+    public PostGeoDto withDistance(long distance) {
+        return new PostGeoDto(this, distance);
+    }
+
+    // 카테고리 목록 -> 비트값
+    public static int toCategoryBits(List<String> categories) {
+        int bits = 0;
+        if (categories == null) {
+            return bits;
+        }
+        for (String category : categories) {
+            int index = CATEGORIES.indexOf(category);
+            if (index >= 0) {
+                bits |= 1 << index;
+            }
+        }
+        return bits;
+    }
+}
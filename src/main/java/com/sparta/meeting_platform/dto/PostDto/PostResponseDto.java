@@ -87,6 +87,13 @@ public class PostResponseDto {
         this.longitude = longitude;
     }
 
+    // 캐시된 목록(유저 공통)에 유저별 찜 여부, 거리 반영한 복사본
+    public PostResponseDto withUserInfo(Boolean isLike, Long distance) {
+        return new PostResponseDto(postId, title, content, time, personnel, place, postUrls, tags, categories,
+                bungCount, mannerTemp, joinPeopleUrl, joinPeopleNickname, joinCount, isLetter, isLike,
+                avgTemp, postUrl, distance, latitude, longitude);
+    }
+
 //    public PostResponseDto(Post post, String time) {
 //        this.id = post.getId();
 //        this.title = post.getTitle();
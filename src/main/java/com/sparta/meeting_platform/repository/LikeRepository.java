@@ -3,7 +3,10 @@ package com.sparta.meeting_platform.repository;
 import com.sparta.meeting_platform.domain.Like;
 import com.sparta.meeting_platform.repository.mapping.Post;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +16,8 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     void deleteByUserId(Long userId);
     void deleteByPostId(Long postId);
 
+    // 주어진 게시글 중 유저가 찜한 postId
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId AND l.post.id IN :postIds AND l.isLike = true")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
 }
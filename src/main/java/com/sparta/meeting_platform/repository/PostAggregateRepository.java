@@ -0,0 +1,18 @@
+package com.sparta.meeting_platform.repository;
+
+import com.sparta.meeting_platform.domain.PostAggregate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PostAggregateRepository extends JpaRepository<PostAggregate, Long> {
+
+    // 주어진 게시글 중 참여자 평균 매너온도 높은 순 postId (참여자가 없는 게시글 제외)
+    @Query("SELECT a.postId FROM PostAggregate a WHERE a.postId IN :postIds AND a.joinCount > 0 "
+            + "ORDER BY a.avgTemp DESC, a.postId")
+    List<Long> findPostIdsOrderByAvgTemp(@Param("postIds") Collection<Long> postIds, Pageable pageable);
+}
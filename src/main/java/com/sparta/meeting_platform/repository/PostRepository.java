@@ -1,11 +1,22 @@
 package com.sparta.meeting_platform.repository;
 
 import com.sparta.meeting_platform.domain.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface PostRepository extends JpaRepository<Post,Long> {
 
     Post findByUserId(Long UserId);
+    List<Post> findAllByUserId(Long userId);
     void deleteByUserId(Long userId);
     Post findByIdAndIsLetterFalse(Long postId);
+    List<Post> findAllByTimeBeforeOrderByTimeAscIdAsc(LocalDateTime time, Pageable pageable);
+    long countByTimeBefore(LocalDateTime time);
+
+    @Query("SELECT MIN(p.time) FROM Post p")
+    LocalDateTime findFirstTime();
 }
@@ -0,0 +1,309 @@
+package com.sparta.meeting_platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.meeting_platform.dto.PostDto.FeedDto;
+import com.sparta.meeting_platform.dto.PostDto.PostGeoDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/*
+ * 위치 기반 피드 캐시 (서버 메모리 LRU + Redis)
+ * - key : 격자(약 5km) + status + 카테고리/태그 목록, 격자 중심 좌표 기준으로 만든 유저 공통 목록을 저장한다.
+ *   status, 카테고리/태그 값은 URL 인코딩해서 넣는다. (태그에 ':' ',' 가 들어가도 key 를 다시 나눌 수 있게)
+ * - 게시글 생성/수정/삭제/만료시 (PostGeoIndexService 변경 알림) 변경 전/후 위치가 그 격자 중심의 조회 반경 안에 있고,
+ *   카테고리/태그 조건에도 맞는 key 만 지운다. (목록은 격자 중심 좌표로 만들므로 그 밖의 key 는 결과가 같다)
+ * - Redis 에는 지역(1도) 단위로 FEED_REGION:{위도}:{경도} (ZSET, score : 만료 시각) 에 key 를 기록해 두고,
+ *   변경된 위치의 조회 반경이 걸치는 지역만 읽는다. (전체 key 를 훑지 않는다)
+ * - 참여인원/평균온도/경과시간 변경은 TTL(1분) 안에서만 늦게 반영된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FeedCacheService {
+    private static final String FEED_KEY = "FEED:";
+    private static final String FEED_REGION = "FEED_REGION:"; // 지역별 캐시된 key, score : 만료 시각
+    private static final double CELL_SIZE = 0.05; // 격자 한칸의 크기(도)
+    private static final double REGION_SIZE = 1.0; // 무효화 색인 지역 한칸의 크기(도)
+    private static final double METERS_PER_DEGREE = 6370986.0 * Math.PI / 180.0;
+    private static final double FEED_DISTANCE = 400000.0; // PostService 조회 반경(m)
+    private static final long TTL_MILLIS = 60 * 1000L;
+    private static final int LOCAL_MAX_SIZE = 500;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final PostGeoIndexService postGeoIndexService;
+    private final MeterRegistry meterRegistry;
+
+    // access-order LinkedHashMap 으로 LRU
+    private final Map<String, FeedDto> localCache = Collections.synchronizedMap(
+            new LinkedHashMap<String, FeedDto>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, FeedDto> eldest) {
+                    return size() > LOCAL_MAX_SIZE;
+                }
+            });
+
+    private Counter localHit;
+    private Counter redisHit;
+    private Counter miss;
+    private Counter invalidated;
+    private Timer staleness;
+
+    @PostConstruct
+    private void init() {
+        localHit = meterRegistry.counter("feed.cache.requests", "result", "local");
+        redisHit = meterRegistry.counter("feed.cache.requests", "result", "redis");
+        miss = meterRegistry.counter("feed.cache.requests", "result", "miss");
+        invalidated = meterRegistry.counter("feed.cache.invalidated");
+        // 캐시에서 꺼낸 목록이 만들어진지 얼마나 지났는지
+        staleness = meterRegistry.timer("feed.cache.staleness");
+        meterRegistry.gaugeMapSize("feed.cache.local.size", Collections.emptyList(), localCache);
+        postGeoIndexService.addChangeListener(this::evict);
+    }
+
+    /**
+     * 캐시 조회, 없으면 loader(격자 중심 위도, 경도)로 만들어 저장
+     */
+    public FeedDto get(Double latitude, Double longitude, String status, List<String> filters,
+                       BiFunction<Double, Double, FeedDto> loader) {
+        long latCell = cell(latitude);
+        long lonCell = cell(longitude);
+        String key = FEED_KEY + latCell + ":" + lonCell + ":" + encode(status) + ":" + filterKey(filters);
+        long now = System.currentTimeMillis();
+
+        FeedDto feed = localCache.get(key);
+        if (feed != null && now - feed.getCachedAt() < TTL_MILLIS) {
+            localHit.increment();
+            staleness.record(now - feed.getCachedAt(), TimeUnit.MILLISECONDS);
+            return feed;
+        }
+        feed = readRedis(key);
+        if (feed != null) {
+            redisHit.increment();
+            staleness.record(now - feed.getCachedAt(), TimeUnit.MILLISECONDS);
+            localCache.put(key, feed);
+            return feed;
+        }
+        miss.increment();
+        feed = loader.apply(center(latCell), center(lonCell));
+        if (!feed.isPartial()) {
+            localCache.put(key, feed);
+            writeRedis(key, feed);
+        }
+        return feed;
+    }
+
+    // 변경 전/후 위치가 조회 반경 안에 들어가는 격자 캐시 삭제
+    private void evict(PostGeoDto old, PostGeoDto geoPost) {
+        List<PostGeoDto> changed = new ArrayList<>();
+        if (old != null) {
+            changed.add(old);
+        }
+        if (geoPost != null) {
+            changed.add(geoPost);
+        }
+        synchronized (localCache) {
+            localCache.keySet().removeIf(key -> isAffected(key, changed));
+        }
+        try {
+            List<String> regions = new ArrayList<>();
+            for (PostGeoDto changedPost : changed) {
+                for (String region : regionsAround(changedPost)) {
+                    if (!regions.contains(region)) {
+                        regions.add(region);
+                    }
+                }
+            }
+            long now = System.currentTimeMillis();
+            List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+                for (String region : regions) {
+                    stringRedisConnection.zRangeByScore(region, now, Double.POSITIVE_INFINITY);
+                }
+                return null;
+            });
+            Map<String, List<String>> targets = new LinkedHashMap<>();
+            for (int i = 0; i < regions.size(); i++) {
+                @SuppressWarnings("unchecked")
+                Set<String> keys = (Set<String>) results.get(i);
+                if (keys == null) {
+                    continue;
+                }
+                for (String key : keys) {
+                    if (isAffected(key, changed)) {
+                        targets.computeIfAbsent(regions.get(i), region -> new ArrayList<>()).add(key);
+                    }
+                }
+            }
+            if (targets.isEmpty()) {
+                return;
+            }
+            int count = 0;
+            for (List<String> keys : targets.values()) {
+                count += keys.size();
+            }
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+                for (Map.Entry<String, List<String>> target : targets.entrySet()) {
+                    String[] keys = target.getValue().toArray(new String[0]);
+                    stringRedisConnection.del(keys);
+                    stringRedisConnection.zRem(target.getKey(), keys);
+                }
+                return null;
+            });
+            invalidated.increment(count);
+        } catch (Exception e) {
+            log.error("피드 캐시 삭제 실패 : {}", e.getMessage());
+        }
+    }
+
+    private FeedDto readRedis(String key) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(key);
+            return json == null ? null : objectMapper.readValue(json, FeedDto.class);
+        } catch (Exception e) {
+            log.error("피드 캐시 조회 실패 : {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(String key, FeedDto feed) {
+        try {
+            String json = objectMapper.writeValueAsString(feed);
+            String region = regionKey(center(parseCell(key, 0)), center(parseCell(key, 1)));
+            long expireAt = feed.getCachedAt() + TTL_MILLIS;
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringRedisConnection = (StringRedisConnection) connection;
+                stringRedisConnection.pSetEx(key, TTL_MILLIS, json);
+                stringRedisConnection.zAdd(region, expireAt, key);
+                stringRedisConnection.zRemRangeByScore(region, 0, System.currentTimeMillis()); // 만료된 key 정리
+                stringRedisConnection.pExpire(region, TTL_MILLIS);
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("피드 캐시 저장 실패 : {}", e.getMessage());
+        }
+    }
+
+    // key 의 목록에 변경된 게시글이 들어가는지 (들어갔었는지)
+    // 격자 중심에서 조회 반경 안이고, 카테고리/태그 목록이면 조건에도 맞아야 한다.
+    private boolean isAffected(String key, List<PostGeoDto> changed) {
+        String[] parts = key.substring(FEED_KEY.length()).split(":", 4);
+        double latitude = center(Long.parseLong(parts[0]));
+        double longitude = center(Long.parseLong(parts[1]));
+        String status = decode(parts[2]);
+        List<String> filters = new ArrayList<>();
+        if (!parts[3].isEmpty()) {
+            for (String filter : parts[3].split(",")) {
+                filters.add(decode(filter));
+            }
+        }
+        for (PostGeoDto geoPost : changed) {
+            double meters = PostGeoIndexService.distance(longitude, latitude, geoPost.getLongitude(), geoPost.getLatitude());
+            if (meters < FEED_DISTANCE && matches(status, filters, geoPost)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // PostService 의 카테고리/태그 목록 조건 (그 외 목록은 반경 안의 모든 게시글)
+    private boolean matches(String status, List<String> filters, PostGeoDto geoPost) {
+        switch (status) {
+            case "categories":
+                return (geoPost.getCategoryBits() & PostGeoDto.toCategoryBits(filters)) != 0;
+            case "tags":
+                return !Collections.disjoint(geoPost.getTags(), filters);
+            default:
+                return true;
+        }
+    }
+
+    // 게시글 위치를 조회 반경 안에 두는 격자 중심들이 속한 지역 key 목록
+    private List<String> regionsAround(PostGeoDto geoPost) {
+        double latDelta = FEED_DISTANCE / METERS_PER_DEGREE + CELL_SIZE;
+        double minLat = Math.max(geoPost.getLatitude() - latDelta, -90.0);
+        double maxLat = Math.min(geoPost.getLatitude() + latDelta, 90.0);
+        double edgeLat = Math.max(Math.abs(minLat), Math.abs(maxLat));
+        double lonDelta = FEED_DISTANCE / (METERS_PER_DEGREE * Math.max(Math.cos(Math.toRadians(edgeLat)), 0.01)) + CELL_SIZE;
+        List<String> regions = new ArrayList<>();
+        for (long latRegion = region(minLat); latRegion <= region(maxLat); latRegion++) {
+            for (long lonRegion = region(geoPost.getLongitude() - lonDelta); lonRegion <= region(geoPost.getLongitude() + lonDelta); lonRegion++) {
+                regions.add(FEED_REGION + latRegion + ":" + lonRegion);
+            }
+        }
+        return regions;
+    }
+
+    private static String regionKey(double latitude, double longitude) {
+        return FEED_REGION + region(latitude) + ":" + region(longitude);
+    }
+
+    private static long region(double degree) {
+        return (long) Math.floor(degree / REGION_SIZE);
+    }
+
+    // key 의 격자 번호 (index 0 : 위도, 1 : 경도)
+    private static long parseCell(String key, int index) {
+        return Long.parseLong(key.substring(FEED_KEY.length()).split(":", 3)[index]);
+    }
+
+    // 순서와 상관없이 같은 목록이면 같은 key
+    private String filterKey(List<String> filters) {
+        if (filters == null) {
+            return "";
+        }
+        List<String> encoded = new ArrayList<>();
+        for (String filter : new TreeSet<>(filters)) {
+            encoded.add(encode(filter));
+        }
+        return String.join(",", encoded);
+    }
+
+    // ':' ',' 는 %3A %2C 로 바뀌므로 key 구분자와 섞이지 않는다.
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long cell(double degree) {
+        return (long) Math.floor(degree / CELL_SIZE);
+    }
+
+    private static double center(long cell) {
+        return (cell + 0.5) * CELL_SIZE;
+    }
+}
@@ -0,0 +1,86 @@
+package com.sparta.meeting_platform.service;
+
+import com.sparta.meeting_platform.dto.PostDto.FeedDto;
+import com.sparta.meeting_platform.dto.PostDto.PostResponseDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/*
+ * 피드 섹션을 feedExecutor 에서 병렬로 조회한다.
+ * 섹션마다 별도의 읽기 전용 트랜잭션을 쓰고, 제한시간 안에 끝나지 않거나 실패한 섹션은 빈 목록으로 채운다.
+ * future 취소로는 작업 스레드의 쿼리가 멈추지 않으므로, 섹션 트랜잭션에 timeout 을 걸어
+ * 쿼리마다 statement timeout(초 단위, 올림)으로 끊는다.
+ */
+@Slf4j
+@Service
+public class FeedSectionService {
+    private final Executor feedExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long timeoutMillis;
+
+    public FeedSectionService(
+            @Qualifier("feedExecutor") Executor feedExecutor,
+            PlatformTransactionManager transactionManager,
+            @Value("${feed.section.timeout-ms:800}") long timeoutMillis) {
+        this.feedExecutor = feedExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setTimeout((int) Math.max((timeoutMillis + 999) / 1000, 1));
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    // 섹션 이름, 조회 함수 -> 섹션 이름, 결과 (실패한 섹션이 있으면 partial)
+    public FeedDto load(Map<String, Supplier<List<PostResponseDto>>> loaders) {
+        Map<String, CompletableFuture<List<PostResponseDto>>> futures = new LinkedHashMap<>();
+        for (Map.Entry<String, Supplier<List<PostResponseDto>>> loader : loaders.entrySet()) {
+            CompletableFuture<List<PostResponseDto>> future;
+            try {
+                future = CompletableFuture.supplyAsync(
+                        () -> readOnlyTransaction.execute(status -> loader.getValue().get()), feedExecutor);
+            } catch (Exception e) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+            }
+            futures.put(loader.getKey(), future);
+        }
+
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        Map<String, List<PostResponseDto>> sections = new HashMap<>();
+        boolean partial = false;
+        for (Map.Entry<String, CompletableFuture<List<PostResponseDto>>> future : futures.entrySet()) {
+            try {
+                long remaining = Math.max(deadline - System.currentTimeMillis(), 0);
+                sections.put(future.getKey(), future.getValue().get(remaining, TimeUnit.MILLISECONDS));
+            } catch (TimeoutException e) {
+                // 작업 스레드의 쿼리는 트랜잭션 timeout 으로 끊긴다.
+                log.warn("피드 섹션 조회 시간 초과 : {}", future.getKey());
+                sections.put(future.getKey(), new ArrayList<>());
+                partial = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                sections.put(future.getKey(), new ArrayList<>());
+                partial = true;
+            } catch (Exception e) {
+                log.error("피드 섹션 조회 실패 : {} {}", future.getKey(), e.getMessage());
+                sections.put(future.getKey(), new ArrayList<>());
+                partial = true;
+            }
+        }
+        return new FeedDto(sections, partial);
+    }
+}
@@ -0,0 +1,140 @@
+package com.sparta.meeting_platform.service;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+
+/*
+ * 여러 서버 중 한 곳에서만 작업을 실행하기 위한 Redis 임대(lease) 락
+ * - LOCK:{name} 에 "서버 id:fencing token" 을 PX(ttl) 로 저장한다. 서버가 죽으면 ttl 이 지나 다른 서버가 가져간다.
+ * - fencing token 은 LOCK:{name}:FENCE 를 INCR 한 값으로, 락을 새로 얻을 때마다 커진다.
+ * - keepAlive 로 ttl/3 마다 연장하고, 연장에 실패하면 lost 로 표시한다. (작업이 ttl 보다 오래 걸려도 유지)
+ * - Redis 락만으로는 멈췄다 깨어난 서버(GC, 느린 쿼리)가 락을 잃은 뒤에 쓰는 것을 막을 수 없으므로,
+ *   보호하는 DB 쓰기는 같은 트랜잭션에서 fence 로 lease_fence 행을 자기 token 으로 올리고 잠근 뒤에 한다.
+ *   더 큰 token 이 이미 반영됐으면 false 이므로 롤백한다.
+ * 서버 id 는 인스턴스마다 만들어지므로 한 JVM 에 여러개를 만들어도 서로 다른 서버로 동작한다.
+ */
+@Slf4j
+@Service
+public class LeaseLockService {
+    private static final String LOCK_KEY = "LOCK:";
+    private static final String FENCE_KEY = ":FENCE";
+
+    // 락이 없을 때만 새 token 으로 저장, token 반환 (실패시 0)
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end "
+                    + "local token = redis.call('INCR', KEYS[2]) "
+                    + "redis.call('SET', KEYS[1], ARGV[1] .. ':' .. token, 'PX', ARGV[2]) "
+                    + "return token", Long.class);
+    // 내 락일 때만 연장
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end "
+                    + "return 0", Long.class);
+    // 내 락일 때만 삭제
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end "
+                    + "return 0", Long.class);
+
+    // 더 큰 token 만 반영, 행은 트랜잭션 끝까지 잠긴다.
+    private static final String FENCE_SQL = "INSERT INTO lease_fence (name, token) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE token = GREATEST(token, VALUES(token))";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskScheduler leaseScheduler;
+    private final String owner = UUID.randomUUID().toString();
+
+    public LeaseLockService(StringRedisTemplate stringRedisTemplate, JdbcTemplate jdbcTemplate,
+                            @Qualifier("leaseScheduler") TaskScheduler leaseScheduler) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseScheduler = leaseScheduler;
+    }
+
+    /**
+     * 락 획득 시도, 다른 서버가 가지고 있거나 Redis 오류면 null
+     */
+    public Lease tryAcquire(String name, Duration ttl) {
+        try {
+            Long token = stringRedisTemplate.execute(ACQUIRE,
+                    Arrays.asList(LOCK_KEY + name, LOCK_KEY + name + FENCE_KEY),
+                    owner, String.valueOf(ttl.toMillis()));
+            return token == null || token == 0 ? null : new Lease(name, token, owner + ":" + token);
+        } catch (Exception e) {
+            log.error("락 획득 실패 : {} {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    // 아직 내 락이면 ttl 연장 후 true
+    public boolean renew(Lease lease, Duration ttl) {
+        try {
+            Long result = stringRedisTemplate.execute(RENEW, Collections.singletonList(LOCK_KEY + lease.getName()),
+                    lease.getValue(), String.valueOf(ttl.toMillis()));
+            return result != null && result == 1;
+        } catch (Exception e) {
+            log.error("락 연장 실패 : {} {}", lease.getName(), e.getMessage());
+            return false;
+        }
+    }
+
+    // 반납할 때까지 ttl/3 마다 연장, 실패하면 lost
+    public void keepAlive(Lease lease, Duration ttl) {
+        lease.renewal = leaseScheduler.scheduleAtFixedRate(() -> {
+            if (!lease.lost && !renew(lease, ttl)) {
+                lease.lost = true;
+                log.warn("락 연장 실패로 lease 만료 : {} (token : {})", lease.getName(), lease.getToken());
+            }
+        }, Duration.ofMillis(Math.max(ttl.toMillis() / 3, 1)));
+    }
+
+    /**
+     * 호출한 트랜잭션에서 lease_fence 행을 내 token 으로 올린다. (커밋/롤백까지 행 잠금)
+     * 더 나중에 락을 얻은 서버가 이미 반영했으면 false, 호출한 쪽에서 롤백해야 한다.
+     */
+    public boolean fence(Lease lease) {
+        jdbcTemplate.update(FENCE_SQL, lease.getName(), lease.getToken());
+        Long token = jdbcTemplate.queryForObject("SELECT token FROM lease_fence WHERE name = ?",
+                Long.class, lease.getName());
+        return token != null && token == lease.getToken();
+    }
+
+    public void release(Lease lease) {
+        if (lease.renewal != null) {
+            lease.renewal.cancel(false);
+        }
+        try {
+            stringRedisTemplate.execute(RELEASE, Collections.singletonList(LOCK_KEY + lease.getName()), lease.getValue());
+        } catch (Exception e) {
+            // 반납하지 못해도 ttl 이 지나면 풀린다.
+            log.error("락 반납 실패 : {} {}", lease.getName(), e.getMessage());
+        }
+    }
+
+    @Getter
+    public static class Lease {
+        private final String name;
+        private final long token; // fencing token
+        private final String value;
+        private volatile boolean lost; // keepAlive 연장 실패
+        private volatile ScheduledFuture<?> renewal;
+
+        private Lease(String name, long token, String value) {
+            this.name = name;
+            this.token = token;
+            this.value = value;
+        }
+    }
+}
@@ -25,6 +25,9 @@ import java.nio.charset.Charset;
 @Service
 public class MapSearchService {
 
+    // ST_DISTANCE_SPHERE 기본 반지름(m) 기준 위도 1도의 거리
+    private static final double METERS_PER_DEGREE = 6370986.0 * Math.PI / 180.0;
+
     @Value("${geocoding}")
     private String geocoding;
 
@@ -35,6 +38,21 @@ public class MapSearchService {
         return (Point) new WKTReader().read(pointWKT);
     }
 
+    // 반경(m)을 감싸는 사각형(bounding box) WKT 구하기
+    // location 공간 인덱스로 후보를 먼저 거르고, 정확한 거리는 후보에만 계산한다.
+    public String makeBoundingBox(Double longitude, Double latitude, Double distance) {
+        double latDelta = distance / METERS_PER_DEGREE;
+        double minLat = Math.max(latitude - latDelta, -90.0);
+        double maxLat = Math.min(latitude + latDelta, 90.0);
+        // 경도 1도의 거리는 위도가 높을수록 짧아지므로 극에 가까운 쪽 위도 기준으로 계산
+        double edgeLat = Math.max(Math.abs(minLat), Math.abs(maxLat));
+        double lonDelta = distance / (METERS_PER_DEGREE * Math.max(Math.cos(Math.toRadians(edgeLat)), 0.01));
+        double minLon = Math.max(longitude - lonDelta, -180.0);
+        double maxLon = Math.min(longitude + lonDelta, 180.0);
+        return String.format("POLYGON((%s %s, %s %s, %s %s, %s %s, %s %s))",
+                minLon, minLat, maxLon, minLat, maxLon, maxLat, minLon, maxLat, minLon, minLat);
+    }
+
     //위도 경도 찾아 오기 함수
     public SearchMapDto findLatAndLong(String location) throws IOException, ParseException {
 
@@ -1,10 +1,10 @@
 package com.sparta.meeting_platform.service;
 
-import com.sparta.meeting_platform.domain.Post;
 import com.sparta.meeting_platform.domain.User;
 import com.sparta.meeting_platform.dto.MapDto.MapListDto;
 import com.sparta.meeting_platform.dto.MapDto.MapResponseDto;
 import com.sparta.meeting_platform.dto.MapDto.SearchMapDto;
+import com.sparta.meeting_platform.dto.PostDto.PostGeoDto;
 import com.sparta.meeting_platform.exception.MapApiException;
 import com.sparta.meeting_platform.exception.UserApiException;
 import com.sparta.meeting_platform.repository.UserRepository;
@@ -15,15 +15,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.persistence.EntityManager;
-import javax.persistence.Query;
 import java.io.IOException;
 import java.util.List;
 
 @RequiredArgsConstructor
 @Service
 public class MapService {
-    private final EntityManager em;
+    private final PostGeoIndexService postGeoIndexService;
     private final PostSearchService postSearchService;
     private final MapSearchService mapSearchService;
     private final UserRepository userRepository;
@@ -32,25 +30,16 @@ public class MapService {
 
     //지도탭 입장
     @Transactional(readOnly = true)
-    public ResponseEntity<MapResponseDto<?>> readMap(Double latitude, Double longitude, Long userId)
-            throws org.locationtech.jts.io.ParseException {
+    public ResponseEntity<MapResponseDto<?>> readMap(Double latitude, Double longitude, Long userId) {
         User user = checkUser(userId);
 
-        Query query = em.createNativeQuery(
-                        "SELECT id, content, created_at, is_letter, latitude, location, longitude,"
-                                + "modified_at, personnel, place, time, title, user_id , "
-                                + "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS 'distance' "
-                                + "FROM post AS p "
-                                + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude)) < :distance "
-                                + "ORDER BY distance", Post.class)
-                .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
-                .setParameter("distance", distance);
-        List<Post> posts = query.getResultList();
-
-        if (posts.size() < 1) {
+        List<PostGeoDto> geoPosts
+                = postGeoIndexService.findNearest(longitude, latitude, distance, geoPost -> true, Integer.MAX_VALUE);
+
+        if (geoPosts.size() < 1) {
             throw new MapApiException(distance + "km 내에 모임이 존재하지 않습니다.");
         }
-        List<MapListDto> mapListDtos = postSearchService.searchMapPostList(posts, userId);
+        List<MapListDto> mapListDtos = postSearchService.searchMapPostList(geoPosts, userId);
 
         return new ResponseEntity<>(
                 new MapResponseDto<>(
@@ -60,24 +49,18 @@ public class MapService {
     // 주소 검색 결과
     @Transactional(readOnly = true)
     public ResponseEntity<MapResponseDto<?>> searchMap(String address, Long userId)
-            throws IOException, ParseException, org.locationtech.jts.io.ParseException {
+            throws IOException, ParseException {
         User user = checkUser(userId);
         SearchMapDto searchMapDto = mapSearchService.findLatAndLong(address);
 
-        Query query = em.createNativeQuery(
-                        "SELECT *,ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude)) AS distance FROM post AS p "
-                                + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude)) < :distance "
-                                + "ORDER BY distance", Post.class)
-                .setParameter("myPoint",
-                        mapSearchService.makePoint(searchMapDto.getLongitude(), searchMapDto.getLatitude()))
-                .setParameter("distance", distance);
-        List<Post> posts = query.getResultList();
+        List<PostGeoDto> geoPosts = postGeoIndexService.findNearest(
+                searchMapDto.getLongitude(), searchMapDto.getLatitude(), distance, geoPost -> true, Integer.MAX_VALUE);
 
-        if (posts.size() < 1) {
+        if (geoPosts.size() < 1) {
             throw new MapApiException(distance + "km 내에 모임이 존재하지 않습니다.");
         }
         List<MapListDto> mapListDtos
-                = postSearchService.searchMapPostList(posts, userId);
+                = postSearchService.searchMapPostList(geoPosts, userId);
 
         return new ResponseEntity<>(
                 new MapResponseDto<>(
@@ -87,26 +70,18 @@ public class MapService {
     //지도 세부 설정 검색
     @Transactional(readOnly = true)
     public ResponseEntity<MapResponseDto<?>> detailsMap(List<String> categories, int personnel, Double distance,
-                                                        Double latitude, Double longitude, Long userId)
-            throws org.locationtech.jts.io.ParseException {
+                                                        Double latitude, Double longitude, Long userId) {
         User user = checkUser(userId);
         Double distanceKm = distance * 1000;
-        String mergeList = postSearchService.categoryOrTagListMergeString(categories);
-
-        Query query = em.createNativeQuery(
-                        "SELECT id, content, created_at, is_letter, latitude, location, longitude,"
-                                + "modified_at, personnel, place, time, title, user_id , "
-                                + "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS 'distance' "
-                                + "FROM post AS p "
-                                + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude)) < :distance "
-                                + "AND personnel <= " + personnel + " AND p.id in (select u.post_id from post_categories u "
-                                + "WHERE u.category in (" + mergeList + "))"
-                                + "ORDER BY distance", Post.class)
-                .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
-                .setParameter("distance", distanceKm);
-        List<Post> posts = query.getResultList();
-
-        List<MapListDto> mapListDtos = postSearchService.searchMapPostList(posts, userId);
+        // 카테고리를 선택하지 않으면 전체 카테고리
+        int categoryBits = categories == null || categories.isEmpty()
+                ? PostGeoDto.toCategoryBits(PostGeoDto.CATEGORIES)
+                : PostGeoDto.toCategoryBits(categories);
+        List<PostGeoDto> geoPosts = postGeoIndexService.findNearest(longitude, latitude, distanceKm,
+                geoPost -> geoPost.getPersonnel() <= personnel && (geoPost.getCategoryBits() & categoryBits) != 0,
+                Integer.MAX_VALUE);
+
+        List<MapListDto> mapListDtos = postSearchService.searchMapPostList(geoPosts, userId);
 
         return new ResponseEntity<>(
                 new MapResponseDto<>(
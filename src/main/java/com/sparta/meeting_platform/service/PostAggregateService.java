@@ -0,0 +1,112 @@
+package com.sparta.meeting_platform.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+
+/*
+ * post_aggregate(참여인원, 매너온도 합계/평균) 갱신
+ * 호출하는 쪽 트랜잭션 안에서 invited_users 변경과 함께 반영된다.
+ * MySQL 단일 테이블 UPDATE 는 SET 절을 왼쪽부터 적용하므로 avg_temp 는 갱신된 합계/인원으로 계산된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostAggregateService {
+    private final EntityManager em;
+
+    // 서버 기동시 집계 행이 없는 게시글 채우기
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void init() {
+        try {
+            int count = em.createNativeQuery("INSERT IGNORE INTO post_aggregate (post_id, join_count, manner_temp_sum, avg_temp) "
+                            + "SELECT p.id, COUNT(i.id), IFNULL(SUM(u.manner_temp), 0), IFNULL(AVG(u.manner_temp), 0) "
+                            + "FROM post AS p "
+                            + "LEFT JOIN invited_users AS i ON i.post_id = p.id "
+                            + "LEFT JOIN userinfo AS u ON i.user_id = u.id "
+                            + "WHERE p.id NOT IN (SELECT a.post_id FROM post_aggregate AS a) "
+                            + "GROUP BY p.id")
+                    .executeUpdate();
+            log.info("post_aggregate 생성 : {}건", count);
+        } catch (Exception e) {
+            log.error("post_aggregate 생성 실패 : {}", e.getMessage());
+        }
+    }
+
+    // 참여자 추가
+    public void join(Long postId, int mannerTemp) {
+        em.createNativeQuery("INSERT INTO post_aggregate (post_id, join_count, manner_temp_sum, avg_temp) "
+                        + "VALUES (:postId, 1, :mannerTemp, :mannerTemp) "
+                        + "ON DUPLICATE KEY UPDATE join_count = join_count + 1, "
+                        + "manner_temp_sum = manner_temp_sum + :mannerTemp, "
+                        + "avg_temp = manner_temp_sum / join_count")
+                .setParameter("postId", postId)
+                .setParameter("mannerTemp", mannerTemp)
+                .executeUpdate();
+    }
+
+    // 참여자 삭제 (count : 삭제된 invited_users 행 수)
+    public void leave(Long postId, int mannerTemp, long count) {
+        if (count < 1) {
+            return;
+        }
+        em.createNativeQuery("UPDATE post_aggregate "
+                        + "SET join_count = GREATEST(join_count - :count, 0), "
+                        + "manner_temp_sum = manner_temp_sum - :mannerTemp * :count, "
+                        + "avg_temp = IF(join_count > 0, manner_temp_sum / join_count, 0) "
+                        + "WHERE post_id = :postId")
+                .setParameter("postId", postId)
+                .setParameter("mannerTemp", mannerTemp)
+                .setParameter("count", count)
+                .executeUpdate();
+    }
+
+    // 유저 매너온도 변경시 참여중인 게시글 반영
+    public void changeMannerTemp(Long userId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        em.createNativeQuery("UPDATE post_aggregate AS a "
+                        + "SET a.manner_temp_sum = a.manner_temp_sum + :delta * "
+                        + "(SELECT COUNT(*) FROM invited_users AS i WHERE i.post_id = a.post_id AND i.user_id = :userId), "
+                        + "a.avg_temp = IF(a.join_count > 0, a.manner_temp_sum / a.join_count, 0) "
+                        + "WHERE a.post_id IN (SELECT i.post_id FROM invited_users AS i WHERE i.user_id = :userId)")
+                .setParameter("userId", userId)
+                .setParameter("delta", delta)
+                .executeUpdate();
+    }
+
+    // invited_users 기준으로 다시 계산 (여러 행이 한번에 지워지는 경우)
+    public void refresh(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        em.createNativeQuery("UPDATE post_aggregate AS a "
+                        + "LEFT JOIN (SELECT i.post_id, COUNT(*) AS cnt, SUM(u.manner_temp) AS temp_sum "
+                        + "FROM invited_users AS i "
+                        + "INNER JOIN userinfo AS u ON i.user_id = u.id "
+                        + "WHERE i.post_id IN (:postIds) "
+                        + "GROUP BY i.post_id) AS s "
+                        + "ON a.post_id = s.post_id "
+                        + "SET a.join_count = IFNULL(s.cnt, 0), "
+                        + "a.manner_temp_sum = IFNULL(s.temp_sum, 0), "
+                        + "a.avg_temp = IFNULL(s.temp_sum / s.cnt, 0) "
+                        + "WHERE a.post_id IN (:postIds)")
+                .setParameter("postIds", postIds)
+                .executeUpdate();
+    }
+
+    // 게시글 삭제
+    public void remove(Long postId) {
+        em.createNativeQuery("DELETE FROM post_aggregate WHERE post_id = :postId")
+                .setParameter("postId", postId)
+                .executeUpdate();
+    }
+}
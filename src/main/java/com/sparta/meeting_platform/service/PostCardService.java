@@ -0,0 +1,87 @@
+package com.sparta.meeting_platform.service;
+
+import com.sparta.meeting_platform.dto.PostDto.PostCardDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 게시글 목록(카드) 조회용 읽기 전용 projection
+ * - Post 엔티티 대신 카드에 필요한 컬럼만 한번에 읽는다. (대표 이미지 1장, post_aggregate 참여인원/매너온도, 찜 여부)
+ * - 결과는 영속성 컨텍스트에 올라가지 않으므로 dirty checking / 컬렉션 지연 로딩이 없다.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostCardService {
+    // PostCardDto(Object[]) 컬럼 순서와 맞춘다. 마지막 컬럼(distance)은 조회마다 다르다.
+    private static final String SELECT_CARD = "SELECT p.id, p.title, p.content, p.time, p.personnel, p.place, p.is_letter, "
+            + "p.latitude, p.longitude, "
+            + "(SELECT i.post_url FROM post_post_urls AS i WHERE i.post_id = p.id ORDER BY i.post_url_order LIMIT 1) AS post_url, "
+            + "COALESCE(s.join_count, 0) AS join_count, "
+            + "COALESCE(s.manner_temp_sum, 0) AS manner_temp_sum, "
+            + "COALESCE(s.avg_temp, 0) AS avg_temp, ";
+    private static final String IS_LIKE = "EXISTS (SELECT 1 FROM liketable AS l "
+            + "WHERE l.post_id = p.id AND l.user_id = :userId AND l.is_like = true) AS is_like, ";
+    // 유저 공통 목록(피드 캐시)은 찜 여부 없음
+    private static final String NOT_LIKE = "FALSE AS is_like, ";
+    private static final String DISTANCE = "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS distance ";
+    private static final String FROM_CARD = "FROM post AS p "
+            + "LEFT JOIN post_aggregate AS s ON s.post_id = p.id ";
+
+    private final EntityManager em;
+
+    // postId 목록 순서대로 조회 (거리는 0, 호출하는 쪽에서 채운다)
+    public List<PostCardDto> findByIds(List<Long> postIds, Long userId) {
+        List<PostCardDto> result = new ArrayList<>();
+        if (postIds.isEmpty()) {
+            return result;
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("postIds", postIds);
+        Map<Long, PostCardDto> cardMap = new HashMap<>();
+        for (PostCardDto card : execute(SELECT_CARD + likeColumn(userId) + "0 AS distance " + FROM_CARD
+                + "WHERE p.id IN (:postIds)", params, userId)) {
+            cardMap.put(card.getId(), card);
+        }
+        for (Long postId : postIds) {
+            PostCardDto card = cardMap.get(postId);
+            if (card != null) {
+                result.add(card);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 내 위치(params 의 myPoint)까지의 거리를 포함해서 조회
+     * condition : FROM 절 뒤에 붙는 WHERE / HAVING / ORDER BY / LIMIT (post AS p, post_aggregate AS s)
+     */
+    public List<PostCardDto> findNearby(String condition, Map<String, Object> params, Long userId) {
+        return execute(SELECT_CARD + likeColumn(userId) + DISTANCE + FROM_CARD + condition, params, userId);
+    }
+
+    private List<PostCardDto> execute(String sql, Map<String, Object> params, Long userId) {
+        Query query = em.createNativeQuery(sql);
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            query.setParameter(param.getKey(), param.getValue());
+        }
+        if (userId != null) {
+            query.setParameter("userId", userId);
+        }
+        List<PostCardDto> cards = new ArrayList<>();
+        for (Object row : query.getResultList()) {
+            cards.add(new PostCardDto((Object[]) row));
+        }
+        return cards;
+    }
+
+    private String likeColumn(Long userId) {
+        return userId == null ? NOT_LIKE : IS_LIKE;
+    }
+}
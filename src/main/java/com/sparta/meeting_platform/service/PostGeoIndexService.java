@@ -0,0 +1,286 @@
+package com.sparta.meeting_platform.service;
+
+import com.sparta.meeting_platform.domain.Post;
+import com.sparta.meeting_platform.dto.PostDto.PostGeoDto;
+import com.sparta.meeting_platform.repository.PostRepository;
+import com.sparta.meeting_platform.util.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/*
+ * 진행중인 게시글(최대 48시간 유지)의 위치를 격자(grid) 단위로 메모리에 들고 있는 인덱스
+ * 반경 검색/근접 검색을 MySQL 공간 연산 없이 처리한다.
+ * - 게시글 생성/수정/삭제/만료시 커밋 이후 반영하고, Redis 로 다른 서버에 변경된 postId 를 알린다.
+ * - 반영은 항상 DB 에서 다시 읽어서 하고, 같은 게시글은 읽기 ~ 반영을 한 스레드씩 한다. (striped lock)
+ *   알림은 메시지마다 다른 스레드에서 처리되므로, 먼저 온 알림의 읽기가 나중에 반영되어 삭제된 게시글이 되살아나지 않게 한다.
+ * - 서버 기동시 DB 에서 다시 만든다. 만드는 동안 반영된 게시글은 다 만든 뒤 다시 읽는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostGeoIndexService implements MessageListener {
+    public static final String POST_INDEX = "POST_INDEX"; // 게시글 변경 알림 채널
+    private static final double CELL_SIZE = 0.5; // 격자 한칸의 크기(도)
+    private static final double EARTH_RADIUS = 6370986.0; // ST_DISTANCE_SPHERE 기본 반지름(m)
+    private static final double METERS_PER_DEGREE = EARTH_RADIUS * Math.PI / 180.0;
+    private static final int LOCK_STRIPES = 64;
+
+    private final PostRepository postRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListener;
+    private final PlatformTransactionManager transactionManager;
+
+    // postId, 게시글 위치정보
+    private final Map<Long, PostGeoDto> posts = new ConcurrentHashMap<>();
+    // 격자 key, 격자에 속한 postId
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    // 게시글 변경 알림 (변경 전, 변경 후 / 삭제시 null)
+    private final List<BiConsumer<PostGeoDto, PostGeoDto>> changeListeners = new CopyOnWriteArrayList<>();
+    // postId 별 읽기 ~ 반영 잠금
+    private final Object[] locks = newLocks();
+    // 인덱스를 다시 만드는 동안 반영된 postId (만드는 중이 아니면 null)
+    private volatile Set<Long> touchedDuringRebuild;
+
+    @PostConstruct
+    private void init() {
+        redisMessageListener.addMessageListener(this, new ChannelTopic(POST_INDEX));
+    }
+
+    // 서버 기동시 DB 기준으로 인덱스 생성
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Set<Long> touched = ConcurrentHashMap.newKeySet();
+        touchedDuringRebuild = touched;
+        List<PostGeoDto> geoPosts = readOnly().execute(status -> {
+            List<PostGeoDto> result = new ArrayList<>();
+            for (Post post : postRepository.findAll()) {
+                result.add(new PostGeoDto(post));
+            }
+            return result;
+        });
+        synchronized (this) {
+            posts.clear();
+            cells.clear();
+            for (PostGeoDto geoPost : geoPosts) {
+                apply(geoPost);
+            }
+            touchedDuringRebuild = null;
+        }
+        // 목록을 읽은 뒤 반영된 변경은 위에서 지워졌을 수 있으므로 다시 읽는다.
+        for (Long postId : touched) {
+            refresh(postId);
+        }
+        log.info("게시글 위치 인덱스 생성 완료 : {}건 (생성 중 변경 {}건)", posts.size(), touched.size());
+    }
+
+    public void addChangeListener(BiConsumer<PostGeoDto, PostGeoDto> listener) {
+        changeListeners.add(listener);
+    }
+
+    // 게시글 생성/수정 반영 (트랜잭션 커밋 이후)
+    public void put(Post post) {
+        Long postId = post.getId();
+        TransactionCallbacks.afterCommit(() -> {
+            refresh(postId);
+            notifyChange(postId);
+        });
+    }
+
+    // 게시글 삭제/만료 반영 (트랜잭션 커밋 이후)
+    public void remove(Long postId) {
+        TransactionCallbacks.afterCommit(() -> {
+            refresh(postId);
+            notifyChange(postId);
+        });
+    }
+
+    /**
+     * 다른 서버에서 변경된 게시글을 DB 에서 다시 읽어 반영한다.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            refresh(Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    // DB 에서 다시 읽어 반영 (없으면 삭제), 같은 게시글은 나중에 읽은 값이 나중에 반영된다.
+    private void refresh(Long postId) {
+        Set<Long> touched = touchedDuringRebuild;
+        if (touched != null) {
+            touched.add(postId);
+        }
+        PostGeoDto newPost;
+        PostGeoDto old;
+        synchronized (locks[(int) Math.floorMod(postId, (long) LOCK_STRIPES)]) {
+            Optional<PostGeoDto> geoPost = readOnly().execute(
+                    status -> postRepository.findById(postId).map(PostGeoDto::new));
+            newPost = geoPost != null && geoPost.isPresent() ? geoPost.get() : null;
+            synchronized (this) {
+                old = newPost != null ? apply(newPost) : delete(postId);
+            }
+        }
+        fireChange(old, newPost);
+    }
+
+    // 반경(m) 내 게시글 검색, 결과에는 거리값이 채워진다.
+    public List<PostGeoDto> findNearby(double longitude, double latitude, double distance,
+                                       Predicate<PostGeoDto> filter) {
+        double latDelta = distance / METERS_PER_DEGREE;
+        double minLat = Math.max(latitude - latDelta, -90.0);
+        double maxLat = Math.min(latitude + latDelta, 90.0);
+        double edgeLat = Math.max(Math.abs(minLat), Math.abs(maxLat));
+        double lonDelta = distance / (METERS_PER_DEGREE * Math.max(Math.cos(Math.toRadians(edgeLat)), 0.01));
+        double minLon = Math.max(longitude - lonDelta, -180.0);
+        double maxLon = Math.min(longitude + lonDelta, 180.0);
+
+        List<PostGeoDto> result = new ArrayList<>();
+        for (long latCell = cell(minLat); latCell <= cell(maxLat); latCell++) {
+            for (long lonCell = cell(minLon); lonCell <= cell(maxLon); lonCell++) {
+                Set<Long> postIds = cells.get(cellKey(latCell, lonCell));
+                if (postIds == null) {
+                    continue;
+                }
+                for (Long postId : postIds) {
+                    PostGeoDto geoPost = posts.get(postId);
+                    if (geoPost == null || !filter.test(geoPost)) {
+                        continue;
+                    }
+                    double meters = distance(longitude, latitude, geoPost.getLongitude(), geoPost.getLatitude());
+                    if (meters < distance) {
+                        result.add(geoPost.withDistance(Math.round(meters)));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    // 가까운 순으로 k개
+    public List<PostGeoDto> findNearest(double longitude, double latitude, double distance,
+                                        Predicate<PostGeoDto> filter, int k) {
+        return sortAndLimit(findNearby(longitude, latitude, distance, filter), byDistance(), k);
+    }
+
+    public static List<PostGeoDto> sortAndLimit(List<PostGeoDto> geoPosts, Comparator<PostGeoDto> order, int limit) {
+        geoPosts.sort(order);
+        return geoPosts.size() > limit ? new ArrayList<>(geoPosts.subList(0, limit)) : geoPosts;
+    }
+
+    public static Comparator<PostGeoDto> byDistance() {
+        return Comparator.comparingLong(PostGeoDto::getDistance).thenComparing(PostGeoDto::getId);
+    }
+
+    public static Comparator<PostGeoDto> byTime() {
+        return Comparator.comparing(PostGeoDto::getTime).thenComparing(PostGeoDto::getId);
+    }
+
+    // 변경 전 값 반환
+    private PostGeoDto apply(PostGeoDto geoPost) {
+        PostGeoDto old = delete(geoPost.getId());
+        posts.put(geoPost.getId(), geoPost);
+        cells.computeIfAbsent(cellKey(geoPost), key -> ConcurrentHashMap.newKeySet()).add(geoPost.getId());
+        return old;
+    }
+
+    // 삭제된 값 반환
+    private PostGeoDto delete(Long postId) {
+        PostGeoDto old = posts.remove(postId);
+        if (old != null) {
+            Set<Long> postIds = cells.get(cellKey(old));
+            if (postIds != null) {
+                postIds.remove(postId);
+                if (postIds.isEmpty()) {
+                    cells.remove(cellKey(old));
+                }
+            }
+        }
+        return old;
+    }
+
+    private void fireChange(PostGeoDto old, PostGeoDto geoPost) {
+        if (old == null && geoPost == null) {
+            return;
+        }
+        for (BiConsumer<PostGeoDto, PostGeoDto> listener : changeListeners) {
+            try {
+                listener.accept(old, geoPost);
+            } catch (Exception e) {
+                log.error("게시글 변경 처리 실패 : {}", e.getMessage());
+            }
+        }
+    }
+
+    private void notifyChange(Long postId) {
+        try {
+            stringRedisTemplate.convertAndSend(POST_INDEX, String.valueOf(postId));
+        } catch (Exception e) {
+            log.error("게시글 인덱스 변경 알림 실패 : {}", e.getMessage());
+        }
+    }
+
+
+    // 커밋 이후(afterCommit)에도 불리므로 끝난 트랜잭션에 참여하지 않고 새로 읽는다.
+    private TransactionTemplate readOnly() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate;
+    }
+
+    private static Object[] newLocks() {
+        Object[] locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    private static long cell(double degree) {
+        return (long) Math.floor(degree / CELL_SIZE);
+    }
+
+    private static long cellKey(long latCell, long lonCell) {
+        return (latCell << 32) ^ (lonCell & 0xffffffffL);
+    }
+
+    private static long cellKey(PostGeoDto geoPost) {
+        return cellKey(cell(geoPost.getLatitude()), cell(geoPost.getLongitude()));
+    }
+
+    // ST_DISTANCE_SPHERE 와 같은 haversine 거리(m)
+    public static double distance(double lon1, double lat1, double lon2, double lat2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
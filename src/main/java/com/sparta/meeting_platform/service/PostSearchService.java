@@ -4,26 +4,33 @@ import com.sparta.meeting_platform.chat.model.InvitedUsers;
 import com.sparta.meeting_platform.chat.repository.InvitedUsersRepository;
 import com.sparta.meeting_platform.domain.Like;
 import com.sparta.meeting_platform.dto.MapDto.MapListDto;
+import com.sparta.meeting_platform.dto.PostDto.PostCardDto;
 import com.sparta.meeting_platform.dto.PostDto.PostDetailsResponseDto;
+import com.sparta.meeting_platform.dto.PostDto.PostGeoDto;
 import com.sparta.meeting_platform.dto.PostDto.PostResponseDto;
 import com.sparta.meeting_platform.dto.PostDto.TempAndJoinCountSearchDto;
-import com.sparta.meeting_platform.exception.PostApiException;
 import com.sparta.meeting_platform.repository.LikeRepository;
-import com.sparta.meeting_platform.domain.Post;
+import com.sparta.meeting_platform.util.PostTimeFormatter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RequiredArgsConstructor
 @Service
 public class PostSearchService {
     private final LikeRepository likeRepository;
     private final InvitedUsersRepository invitedUsersRepository;
+    private final PostCardService postCardService;
 
     //평균온도,현재참여인원 구하기
     public TempAndJoinCountSearchDto getAvgTemp(Long postId) {
@@ -65,132 +72,115 @@ public class PostSearchService {
         }
     }
 
-    //카페고리및태그 리스트->스트링 변환
-    public String categoryOrTagListMergeString(List<String> categoryOrTagList) {
-        String mergeList = "";
-        try {
-            for (String string : categoryOrTagList) {
-                mergeList += "'" + string + "',";
-            }
-            mergeList = mergeList.substring(0, mergeList.length() - 1);
-            return mergeList;
-        } catch (StringIndexOutOfBoundsException e) {
-            return mergeList = "'맛집','카페','노래방','운동','친목','전시','여행','쇼핑','스터디','게임'";
+    // userId 가 없으면(피드 캐시용 유저 공통 목록) 찜 여부는 모두 false
+    public Set<Long> findLikedPostIds(Collection<Long> postIds, Long userId) {
+        if (userId == null || postIds.isEmpty()) {
+            return new HashSet<>();
         }
+        return new HashSet<>(likeRepository.findLikedPostIds(userId, postIds));
     }
 
-    //postlist 찾기 - 거리순
-    public List<PostResponseDto> searchPostList(List<com.sparta.meeting_platform.domain.Post> posts, Long userId) {
+    // 캐시된 목록에 유저별 찜 여부, 유저 위치 기준 거리 반영 (sortByDistance : 거리순 목록)
+    public List<PostResponseDto> overlayUserInfo(List<PostResponseDto> cached, Set<Long> likedPostIds,
+                                                 Double latitude, Double longitude, boolean sortByDistance) {
         List<PostResponseDto> postList = new ArrayList<>();
-        for (com.sparta.meeting_platform.domain.Post post : posts) {
-            Like like = likeRepository.findByUser_IdAndPost_Id(userId, post.getId()).orElse(null);
-            Boolean isLike;
-
-            if (like == null) {
-                isLike = false;
-            } else {
-                isLike = like.getIsLike();
-            }
-            if (post.getPostUrls().size() < 1) {
-                post.getPostUrls().add(null);
-            }
-            TempAndJoinCountSearchDto tempAndJoinCountSearchDto = getAvgTemp(post.getId());
-            PostResponseDto postResponseDto = PostResponseDto.builder()
-                    .id(post.getId())
-                    .title(post.getTitle())
-                    .content(post.getContent())
-                    .personnel(post.getPersonnel())
-                    .joinCount(tempAndJoinCountSearchDto.getJoinCount())
-                    .place(post.getPlace())
-                    .postUrl(post.getPostUrls().get(0))
-                    .time(timeCheck(post.getTime()))
-                    .avgTemp(tempAndJoinCountSearchDto.getAveTemp())
-                    .isLetter(post.getIsLetter())
-                    .isLike(isLike)
-                    .latitude(post.getLatitude())
-                    .longitude(post.getLongitude())
-                    .distance(post.getDistance() / 1000)
-                    .build();
-            postList.add(postResponseDto);
+        Map<Long, Double> meters = new HashMap<>();
+        for (PostResponseDto postResponseDto : cached) {
+            double distance = PostGeoIndexService.distance(longitude, latitude,
+                    postResponseDto.getLongitude(), postResponseDto.getLatitude());
+            meters.put(postResponseDto.getPostId(), distance);
+            postList.add(postResponseDto.withUserInfo(
+                    likedPostIds.contains(postResponseDto.getPostId()), Math.round(distance) / 1000));
+        }
+        if (sortByDistance) {
+            postList.sort(Comparator.comparingDouble((PostResponseDto postResponseDto) -> meters.get(postResponseDto.getPostId())));
         }
         return postList;
     }
 
-    //postlist 찾기 - realTime,endTime,manner
-    public List<PostResponseDto> searchTimeOrMannerPostList(List<com.sparta.meeting_platform.domain.Post> posts, Long userId) {
+    //postlist 찾기 - 메모리 위치 인덱스 검색 결과 순서대로 (거리는 인덱스 검색 결과)
+    public List<PostResponseDto> searchIndexedPostList(List<PostGeoDto> geoPosts, Long userId) {
+        Map<Long, Long> distanceMap = getDistances(geoPosts);
+        LocalDateTime now = LocalDateTime.now();
         List<PostResponseDto> postList = new ArrayList<>();
-        for (com.sparta.meeting_platform.domain.Post post : posts) {
-            Like like = likeRepository.findByUser_IdAndPost_Id(userId, post.getId()).orElse(null);
-            Boolean isLike;
+        for (PostCardDto card : postCardService.findByIds(getPostIds(geoPosts), userId)) {
+            postList.add(toPostResponseDto(card, distanceMap.get(card.getId()), now));
+        }
+        return postList;
+    }
 
-            if (like == null) {
-                isLike = false;
-            } else {
-                isLike = like.getIsLike();
-            }
-            if (post.getPostUrls().size() < 1) {
-                post.getPostUrls().add(null);
-            }
-            TempAndJoinCountSearchDto tempAndJoinCountSearchDto = getAvgTemp(post.getId());
-            PostResponseDto postResponseDto = PostResponseDto.builder()
-                    .id(post.getId())
-                    .title(post.getTitle())
-                    .content(post.getContent())
-                    .personnel(post.getPersonnel())
-                    .joinCount(tempAndJoinCountSearchDto.getJoinCount())
-                    .place(post.getPlace())
-                    .postUrl(post.getPostUrls().get(0))
-                    .time(timeCheck(post.getTime()))
-                    .avgTemp(tempAndJoinCountSearchDto.getAveTemp())
-                    .isLetter(post.getIsLetter())
-                    .isLike(isLike)
-                    .latitude(post.getLatitude())
-                    .longitude(post.getLongitude())
-                    .distance(post.getDistance() / 1000)
-                    .build();
-            postList.add(postResponseDto);
+    //postlist 찾기 - 거리를 포함한 카드 조회 결과
+    public List<PostResponseDto> searchPostList(List<PostCardDto> cards) {
+        LocalDateTime now = LocalDateTime.now();
+        List<PostResponseDto> postList = new ArrayList<>();
+        for (PostCardDto card : cards) {
+            postList.add(toPostResponseDto(card, card.getDistance(), now));
         }
         return postList;
     }
-    //
+
+    private PostResponseDto toPostResponseDto(PostCardDto card, long distance, LocalDateTime now) {
+        return PostResponseDto.builder()
+                .id(card.getId())
+                .title(card.getTitle())
+                .content(card.getContent())
+                .personnel(card.getPersonnel())
+                .joinCount(card.getJoinCount())
+                .place(card.getPlace())
+                .postUrl(card.getPostUrl())
+                .time(PostTimeFormatter.toLabel(card.getTime(), now))
+                .avgTemp(card.getAvgTemp())
+                .isLetter(card.getIsLetter())
+                .isLike(card.getIsLike())
+                .latitude(card.getLatitude())
+                .longitude(card.getLongitude())
+                .distance(distance / 1000)
+                .build();
+    }
+
     //지도에서 post리스트 찾기
-    public List<MapListDto> searchMapPostList(List<com.sparta.meeting_platform.domain.Post> posts, Long userId) {
+    public List<MapListDto> searchMapPostList(List<PostGeoDto> geoPosts, Long userId) {
+        Map<Long, Long> distanceMap = getDistances(geoPosts);
+        LocalDateTime now = LocalDateTime.now();
         List<MapListDto> mapListDtos = new ArrayList<>();
-        for (com.sparta.meeting_platform.domain.Post post : posts) {
-            Like like = likeRepository.findByUser_IdAndPost_Id(userId, post.getId()).orElse(null);
-            Boolean isLike;
-
-            if (like == null) {
-                isLike = false;
-            } else {
-                isLike = like.getIsLike();
-            }
-            if (post.getPostUrls().size() < 1) {
-                post.getPostUrls().add(null);
-            }
-            TempAndJoinCountSearchDto tempAndJoinCountSearchDto = getAvgTemp(post.getId());
+        for (PostCardDto card : postCardService.findByIds(getPostIds(geoPosts), userId)) {
             MapListDto mapListDto = MapListDto.builder()
-                    .id(post.getId())
-                    .title(post.getTitle())
-                    .content(post.getContent())
-                    .personnel(post.getPersonnel())
-                    .joinCount(tempAndJoinCountSearchDto.getJoinCount())
-                    .place(post.getPlace())
-                    .postUrl(post.getPostUrls().get(0))
-                    .time(timeCheck(post.getTime()))
-                    .avgTemp(tempAndJoinCountSearchDto.getAveTemp())
-                    .isLetter(post.getIsLetter())
-                    .isLike(isLike)
-                    .latitude(post.getLatitude())
-                    .longitude(post.getLongitude())
-                    .distance(post.getDistance() / 1000)
+                    .id(card.getId())
+                    .title(card.getTitle())
+                    .content(card.getContent())
+                    .personnel(card.getPersonnel())
+                    .joinCount(card.getJoinCount())
+                    .place(card.getPlace())
+                    .postUrl(card.getPostUrl())
+                    .time(PostTimeFormatter.toLabel(card.getTime(), now))
+                    .avgTemp(card.getAvgTemp())
+                    .isLetter(card.getIsLetter())
+                    .isLike(card.getIsLike())
+                    .latitude(card.getLatitude())
+                    .longitude(card.getLongitude())
+                    .distance(distanceMap.get(card.getId()) / 1000)
                     .build();
-
             mapListDtos.add(mapListDto);
         }
         return mapListDtos;
     }
 
+    private List<Long> getPostIds(List<PostGeoDto> geoPosts) {
+        List<Long> postIds = new ArrayList<>();
+        for (PostGeoDto geoPost : geoPosts) {
+            postIds.add(geoPost.getId());
+        }
+        return postIds;
+    }
+
+    private Map<Long, Long> getDistances(List<PostGeoDto> geoPosts) {
+        Map<Long, Long> distanceMap = new HashMap<>();
+        for (PostGeoDto geoPost : geoPosts) {
+            distanceMap.put(geoPost.getId(), geoPost.getDistance());
+        }
+        return distanceMap;
+    }
+
     //게시글 상세조회 데이터 출력
     public PostDetailsResponseDto detailPost(Like like, com.sparta.meeting_platform.domain.Post post) {
         Boolean isLike;
@@ -200,9 +190,10 @@ public class PostSearchService {
         } else {
             isLike = like.getIsLike();
         }
-        if (post.getPostUrls().size() < 1) {
-            post.getPostUrls().add(null);
-        }
+        // 이미지가 없으면 [null] (관리 중인 엔티티 컬렉션은 건드리지 않는다)
+        List<String> postUrls = post.getPostUrls().isEmpty()
+                ? Collections.singletonList(null)
+                : post.getPostUrls();
         TempAndJoinCountSearchDto tempAndJoinCountSearchDto = getJoinPeopleInfo(post.getId());
         PostDetailsResponseDto postDetailsResponseDto = PostDetailsResponseDto.builder()
                 .postId(post.getId())
@@ -211,7 +202,7 @@ public class PostSearchService {
                 .time(timeCheck(post.getTime()))
                 .personnel(post.getPersonnel())
                 .place(post.getPlace())
-                .postUrls(post.getPostUrls())
+                .postUrls(postUrls)
                 .tags(post.getTags())
                 .categories(post.getCategories())
                 .bungCount(post.getUser().getBungCount())
@@ -229,32 +220,23 @@ public class PostSearchService {
     }
 
     //찜한 post List 찾기
-    public List<PostResponseDto> searchLikePostList(List<Post> posts, Long userId) {
+    public List<PostResponseDto> searchLikePostList(List<PostCardDto> cards) {
+        LocalDateTime now = LocalDateTime.now();
         List<PostResponseDto> postList = new ArrayList<>();
-        for (Post post : posts) {
-            Like like = likeRepository.findByUser_IdAndPost_Id(userId, post.getId()).orElseThrow(
-                    () -> new PostApiException("찜한 게시글이 없습니다.")
-            );
-
-            if (post.getPostUrls().size() < 1) {
-                post.getPostUrls().add(null);
-            }
-
-
-            TempAndJoinCountSearchDto tempAndJoinCountSearchDto1 = getAvgTemp(post.getId());
+        for (PostCardDto card : cards) {
             PostResponseDto postResponseDto = PostResponseDto.builder()
-                    .id(post.getId())
-                    .title(post.getTitle())
-                    .content(post.getContent())
-                    .personnel(post.getPersonnel())
-                    .joinCount(tempAndJoinCountSearchDto1.getJoinCount())
-                    .place(post.getPlace())
-                    .postUrl(post.getPostUrls().get(0))
-                    .time(timeCheck(post.getTime()))
-                    .avgTemp(tempAndJoinCountSearchDto1.getAveTemp())
-                    .isLetter(post.getIsLetter())
-                    .isLike(like.getIsLike())
-                    .distance(post.getDistance() / 1000)
+                    .id(card.getId())
+                    .title(card.getTitle())
+                    .content(card.getContent())
+                    .personnel(card.getPersonnel())
+                    .joinCount(card.getJoinCount())
+                    .place(card.getPlace())
+                    .postUrl(card.getPostUrl())
+                    .time(PostTimeFormatter.toLabel(card.getTime(), now))
+                    .avgTemp(card.getAvgTemp())
+                    .isLetter(card.getIsLetter())
+                    .isLike(true)
+                    .distance(card.getDistance() / 1000)
                     .build();
             postList.add(postResponseDto);
         }
@@ -270,10 +252,6 @@ public class PostSearchService {
         } else {
             isLike = like.getIsLike();
         }
-        if (post.getPostUrls().size() < 1) {
-            post.getPostUrls().add(null);
-        }
-
         TempAndJoinCountSearchDto tempAndJoinCountSearchDto1 = getAvgTemp(post.getId());
         PostResponseDto postResponseDto = PostResponseDto.builder()
                 .id(post.getId())
@@ -282,7 +260,7 @@ public class PostSearchService {
                 .personnel(post.getPersonnel())
                 .joinCount(tempAndJoinCountSearchDto1.getJoinCount())
                 .place(post.getPlace())
-                .postUrl(post.getPostUrls().get(0))
+                .postUrl(post.getPostUrls().isEmpty() ? null : post.getPostUrls().get(0))
                 .time(timeCheck(post.getTime()))
                 .avgTemp(tempAndJoinCountSearchDto1.getAveTemp())
                 .isLetter(post.getIsLetter())
@@ -292,25 +270,8 @@ public class PostSearchService {
     }
 
     // Time 변환
-    public String timeCheck(String time) {
-        DateTimeFormatter inputFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        LocalDateTime localDateTime = LocalDateTime.parse(time, inputFormat);
-        if (!localDateTime.isAfter(LocalDateTime.now())) {
-            Duration duration = Duration.between(localDateTime, LocalDateTime.now());
-            if (duration.getSeconds() < 60 * 60) {
-                return duration.getSeconds() / 60 + "분 경과";
-            } else {
-                return duration.getSeconds() / 60 / 60 + "시간 경과";
-            }
-
-        } else {
-            if (localDateTime.getDayOfMonth() == LocalDateTime.now().getDayOfMonth()) {
-                return localDateTime.getHour() + "시 시작 예정";
-            } else {
-                return "내일 " + localDateTime.getHour() + "시 시작 예정";
-            }
-
-        }
+    public String timeCheck(LocalDateTime time) {
+        return PostTimeFormatter.toLabel(time, LocalDateTime.now());
     }
 
     public double deg2rad(double deg) {
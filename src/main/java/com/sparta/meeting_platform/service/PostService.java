@@ -3,39 +3,56 @@ package com.sparta.meeting_platform.service;
 import com.sparta.meeting_platform.chat.dto.UserDto;
 import com.sparta.meeting_platform.chat.model.*;
 import com.sparta.meeting_platform.chat.repository.*;
+import com.sparta.meeting_platform.chat.service.ChatMessageWriter;
+import com.sparta.meeting_platform.chat.service.ChatRoomArchiveService;
+import com.sparta.meeting_platform.chat.service.ReadReceiptService;
 import com.sparta.meeting_platform.domain.Like;
 import com.sparta.meeting_platform.domain.Post;
 import com.sparta.meeting_platform.domain.User;
 import com.sparta.meeting_platform.dto.FinalResponseDto;
 import com.sparta.meeting_platform.dto.MapDto.SearchMapDto;
+import com.sparta.meeting_platform.dto.PostDto.FeedDto;
+import com.sparta.meeting_platform.dto.PostDto.PostCardDto;
 import com.sparta.meeting_platform.dto.PostDto.PostDetailsResponseDto;
+import com.sparta.meeting_platform.dto.PostDto.PostGeoDto;
 import com.sparta.meeting_platform.dto.PostDto.PostRequestDto;
 import com.sparta.meeting_platform.dto.PostDto.PostResponseDto;
 import com.sparta.meeting_platform.dto.UserDto.MyPageDto;
 import com.sparta.meeting_platform.exception.PostApiException;
 import com.sparta.meeting_platform.exception.UserApiException;
 import com.sparta.meeting_platform.repository.LikeRepository;
+import com.sparta.meeting_platform.repository.PostAggregateRepository;
 import com.sparta.meeting_platform.repository.PostRepository;
 import com.sparta.meeting_platform.repository.UserRepository;
 import com.sparta.meeting_platform.security.UserDetailsImpl;
 import com.sparta.meeting_platform.util.FileExtFilter;
+import com.sparta.meeting_platform.util.PostCursor;
+import com.sparta.meeting_platform.util.PostTimeFormatter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.io.ParseException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import javax.persistence.EntityManager;
-import javax.persistence.Query;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 //
 @Service
@@ -50,199 +67,172 @@ public class PostService {
     private final PostSearchService postSearchService;
     private final MapSearchService mapSearchService;
     private final ChatRoomRepository chatRoomRepository;
+    private final ChatRoomSummaryRepository chatRoomSummaryRepository;
     private final InvitedUsersRepository invitedUsersRepository;
     private final FileExtFilter fileExtFilter;
-    private final ChatRoomJpaRepository chatRoomJpaRepository;
-    private final ChatMessageJpaRepository chatMessageJpaRepository;
-    private final ResignChatMessageJpaRepository resignChatMessageJpaRepository;
-    private final ResignChatRoomJpaRepository resignChatRoomJpaRepository;
+    private final ChatRoomArchiveService chatRoomArchiveService;
+    private final ChatMessageWriter chatMessageWriter;
+    private final ReadReceiptService readReceiptService;
+    private final PostGeoIndexService postGeoIndexService;
+    private final PostAggregateService postAggregateService;
+    private final PostAggregateRepository postAggregateRepository;
+    private final FeedCacheService feedCacheService;
+    private final FeedSectionService feedSectionService;
+    private final PostCardService postCardService;
 
     private Double distance = 400000.0;
 
-    public String formatDateTime() {
-        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-    }
-
     //게시글 전체 조회(4개만)
-    @Transactional(readOnly = true)
-    public ResponseEntity<FinalResponseDto<?>> getPosts(Long userId, Double latitude, Double longitude) throws ParseException {
+    // 섹션 조회는 섹션별 트랜잭션에서 하므로 여기서 트랜잭션(커넥션)을 잡고 기다리지 않는다.
+    public ResponseEntity<FinalResponseDto<?>> getPosts(Long userId, Double latitude, Double longitude) {
         User user = checkUser(userId);
-        Query realTimeQuery = em.createNativeQuery("SELECT id, content, created_at, is_letter, latitude, location, longitude,"
-                        + "modified_at, personnel, place, time, title, user_id , "
-                        + "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS 'distance' "
-                        + "FROM post AS p "
-                        + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude)) < :distance "
-                        + "AND p.time < :convertedDateReal "
-                        + "ORDER BY p.time desc", Post.class)
-                .setParameter("convertedDateReal", formatDateTime())
-                .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
-                .setParameter("distance", distance)
-                .setMaxResults(4);
-        List<Post> realTimePosts = realTimeQuery.getResultList();
-        Query endTimeQuery = em.createNativeQuery("SELECT id, content, created_at, is_letter, latitude, location, longitude,"
-                        + "modified_at, personnel, place, time, title, user_id , "
-                        + "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS 'distance' "
-                        + "FROM post AS p "
-                        + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude)) < :distance "
-                        + "AND p.time > :convertedDateEnd "
-                        + "ORDER BY p.time", Post.class)
-                .setParameter("convertedDateEnd", formatDateTime())
-                .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
-                .setParameter("distance", distance)
-                .setMaxResults(4);
-        List<Post> endTimePosts = endTimeQuery.getResultList();
-        Query mannerQuery = em.createNativeQuery("SELECT * FROM post AS p "
-                        + "INNER JOIN (SELECT AVG(u.manner_temp) AS avg_temp, i.post_id AS id FROM invited_users AS i "
-                        + "INNER JOIN userinfo AS u "
-                        + "ON i.user_id = u.id "
-                        + "GROUP BY i.post_id) AS s "
-                        + "ON p.id = s.id "
-                        + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude)) < :distance "
-                        + "AND p.time < :convertedDateReal "
-                        + "ORDER BY avg_temp DESC", Post.class)
-                .setParameter("convertedDateReal", formatDateTime())
-                .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
-                .setParameter("distance", distance)
-                .setMaxResults(4);
-        List<Post> mannerPosts = mannerQuery.getResultList();
-        List<PostResponseDto> postListRealTime = postSearchService.searchTimeOrMannerPostList(realTimePosts, userId);
-        List<PostResponseDto> postListEndTime = postSearchService.searchTimeOrMannerPostList(endTimePosts, userId);
-        List<PostResponseDto> postListManner = postSearchService.searchTimeOrMannerPostList(mannerPosts, userId);
+        FeedDto feed = feedCacheService.get(latitude, longitude, "main", null, this::loadMainFeed);
+        Set<Long> likedPostIds = postSearchService.findLikedPostIds(feed.getPostIds(), userId);
+        List<PostResponseDto> postListRealTime = postSearchService.overlayUserInfo(
+                feed.getSection("realTime"), likedPostIds, latitude, longitude, false);
+        List<PostResponseDto> postListEndTime = postSearchService.overlayUserInfo(
+                feed.getSection("endTime"), likedPostIds, latitude, longitude, false);
+        List<PostResponseDto> postListManner = postSearchService.overlayUserInfo(
+                feed.getSection("manner"), likedPostIds, latitude, longitude, false);
 
         return new ResponseEntity<>(new FinalResponseDto<>(true, "게시글 조회 성공", user.getIsOwner(), postListRealTime, postListEndTime, postListManner), HttpStatus.OK);
     }
 
+    // 피드 캐시용 메인 목록 (유저 공통)
+    // 섹션별 게시글 조회 + 정보 채우기는 feedExecutor 에서 병렬로, 시간 초과된 섹션은 빈 목록
+    private FeedDto loadMainFeed(Double latitude, Double longitude) {
+        LocalDateTime now = LocalDateTime.now();
+        // 반경 검색은 메모리 위치 인덱스에서 한번만 하고 시간 조건으로 나눈다.
+        List<PostGeoDto> nearby = postGeoIndexService.findNearby(longitude, latitude, distance, geoPost -> true);
+        List<PostGeoDto> started = filterByTime(nearby, now, false);
+        List<PostGeoDto> realTime = PostGeoIndexService.sortAndLimit(
+                new ArrayList<>(started), PostGeoIndexService.byTime().reversed(), 4);
+        List<PostGeoDto> endTime = PostGeoIndexService.sortAndLimit(
+                filterByTime(nearby, now, true), PostGeoIndexService.byTime(), 4);
+
+        Map<String, Supplier<List<PostResponseDto>>> loaders = new LinkedHashMap<>();
+        loaders.put("realTime", () -> postSearchService.searchIndexedPostList(realTime, null));
+        loaders.put("endTime", () -> postSearchService.searchIndexedPostList(endTime, null));
+        loaders.put("manner", () -> postSearchService.searchIndexedPostList(
+                sortByManner(started, PageRequest.of(0, 4)), null));
+        return feedSectionService.load(loaders);
+    }
+
     //카테고리별 게시글 조회
     @Transactional(readOnly = true)
-    public ResponseEntity<FinalResponseDto<?>> getPostsByCategories(Long userId, List<String> categories, Double latitude, Double longitude) throws ParseException {
+    public ResponseEntity<FinalResponseDto<?>> getPostsByCategories(Long userId, List<String> categories, Double latitude, Double longitude) {
         User user = checkUser(userId);
-        String mergeList = postSearchService.categoryOrTagListMergeString(categories);
-        Query query = em.createNativeQuery(
-                        "SELECT id, content, created_at, is_letter, latitude, location, longitude,"
-                                + "modified_at, personnel, place, time, title, user_id , "
-                                + "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS 'distance' "
-                                + "FROM post AS p "
-                                + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude)) < :distance"
-                                + " AND p.id in (select u.post_id from post_categories u"
-                                + " WHERE u.category in (" + mergeList + "))"
-                                + "ORDER BY distance", Post.class)
-                .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
-                .setParameter("distance", distance);
-        List<Post> posts = query.getResultList();
-        if (posts.size() < 1) {
+        // 카테고리를 선택하지 않으면 전체 카테고리
+        List<String> filters = categories == null || categories.isEmpty() ? PostGeoDto.CATEGORIES : categories;
+        FeedDto feed = feedCacheService.get(latitude, longitude, "categories", filters, (lat, lon) -> {
+            int categoryBits = PostGeoDto.toCategoryBits(filters);
+            List<PostGeoDto> geoPosts = postGeoIndexService.findNearby(lon, lat, distance,
+                    geoPost -> (geoPost.getCategoryBits() & categoryBits) != 0);
+            geoPosts.sort(PostGeoIndexService.byDistance());
+            return new FeedDto(Collections.singletonMap("posts",
+                    postSearchService.searchIndexedPostList(geoPosts, null)));
+        });
+        if (feed.getSection("posts").size() < 1) {
             throw new PostApiException("게시글이 없습니다, 다른 카테고리로 조회해주세요");
         }
-        List<PostResponseDto> postList = postSearchService.searchPostList(posts, userId);
+        List<PostResponseDto> postList = postSearchService.overlayUserInfo(feed.getSection("posts"),
+                postSearchService.findLikedPostIds(feed.getPostIds(), userId), latitude, longitude, true);
 
         return new ResponseEntity<>(new FinalResponseDto<>(true, "게시글 조회 성공", postList, user.getIsOwner()), HttpStatus.OK);
     }
 
     //태그별 게시글 조회
     @Transactional(readOnly = true)
-    public ResponseEntity<FinalResponseDto<?>> getPostsByTags(Long userId, List<String> tags, Double latitude, Double longitude) throws ParseException {
+    public ResponseEntity<FinalResponseDto<?>> getPostsByTags(Long userId, List<String> tags, Double latitude, Double longitude) {
         User user = checkUser(userId);
-        String mergeList = postSearchService.categoryOrTagListMergeString(tags);
-        Query query = em.createNativeQuery(
-                        "SELECT id, content, created_at, is_letter, latitude, location, longitude,"
-                                + "modified_at, personnel, place, time, title, user_id , "
-                                + "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS 'distance' "
-                                + "FROM post AS p "
-                                + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude)) < :distance "
-                                + "AND p.id in (select u.post_id from post_tags u"
-                                + " WHERE u.tag in (" + mergeList + ")) "
-                                + "ORDER BY distance", Post.class)
-                .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
-                .setParameter("distance", distance);
-        List<Post> posts = query.getResultList();
-
-        if (posts.size() < 1) {
+        // 태그를 입력하지 않으면 카테고리명과 같은 태그로 조회 (기존 동작 유지)
+        List<String> filters = tags == null || tags.isEmpty() ? PostGeoDto.CATEGORIES : tags;
+        FeedDto feed = feedCacheService.get(latitude, longitude, "tags", filters, (lat, lon) -> {
+            Set<String> tagSet = new HashSet<>(filters);
+            List<PostGeoDto> geoPosts = postGeoIndexService.findNearby(lon, lat, distance,
+                    geoPost -> !Collections.disjoint(geoPost.getTags(), tagSet));
+            geoPosts.sort(PostGeoIndexService.byDistance());
+            return new FeedDto(Collections.singletonMap("posts",
+                    postSearchService.searchIndexedPostList(geoPosts, null)));
+        });
+
+        if (feed.getSection("posts").size() < 1) {
             throw new PostApiException("게시글이 없습니다, 다른 태그로 조회해주세요");
         }
-        List<PostResponseDto> postList = postSearchService.searchPostList(posts, userId);
+        List<PostResponseDto> postList = postSearchService.overlayUserInfo(feed.getSection("posts"),
+                postSearchService.findLikedPostIds(feed.getPostIds(), userId), latitude, longitude, true);
 
         return new ResponseEntity<>(new FinalResponseDto<>(true, "게시글 조회 성공", postList, user.getIsOwner()), HttpStatus.OK);
     }
 
     //게시글 더 보기 조회
     @Transactional(readOnly = true)
-    public ResponseEntity<FinalResponseDto<?>> morePostList(Long userId, String status, Double latitude, Double longitude) throws ParseException {
+    public ResponseEntity<FinalResponseDto<?>> morePostList(Long userId, String status, Double latitude, Double longitude) {
         User user = checkUser(userId);
-        List<Post> posts = new ArrayList<>();
+        FeedDto feed = feedCacheService.get(latitude, longitude, status, null,
+                (lat, lon) -> loadMoreFeed(status, lat, lon));
+        if (feed.getSection("posts").size() < 1) {
+            throw new PostApiException("게시글이 없습니다");
+        }
+        List<PostResponseDto> postList = postSearchService.overlayUserInfo(feed.getSection("posts"),
+                postSearchService.findLikedPostIds(feed.getPostIds(), userId), latitude, longitude, false);
+
+        return new ResponseEntity<>(new FinalResponseDto<>(true, "게시글 조회 성공", postList, user.getIsOwner()), HttpStatus.OK);
+    }
+
+    // 피드 캐시용 더보기 목록 (유저 공통)
+    private FeedDto loadMoreFeed(String status, Double latitude, Double longitude) {
+        LocalDateTime now = LocalDateTime.now();
+        List<PostGeoDto> geoPosts = new ArrayList<>();
         switch (status) {
             case "endTime":
-                Query query = em.createNativeQuery("SELECT id, content, created_at, is_letter, latitude, location, longitude,"
-                                + "modified_at, personnel, place, time, title, user_id , "
-                                + "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS 'distance' "
-                                + "FROM post AS p "
-                                + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude)) < :distance "
-                                + "AND p.time > :convertedDate1"
-                                + " ORDER BY p.time ", Post.class)
-                        .setParameter("convertedDate1", formatDateTime())
-                        .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
-                        .setParameter("distance", distance);
-                posts = query.getResultList();
+                geoPosts = filterByTime(postGeoIndexService.findNearby(longitude, latitude, distance, geoPost -> true), now, true);
+                geoPosts.sort(PostGeoIndexService.byTime());
                 break;
             case "realTime":
-                Query query1 = em.createNativeQuery("SELECT id, content, created_at, is_letter, latitude, location, longitude,"
-                                + "modified_at, personnel, place, time, title, user_id , "
-                                + "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS 'distance' "
-                                + "FROM post AS p "
-                                + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude)) < :distance "
-                                + "AND p.time < :convertedDate1 "
-                                + "ORDER BY p.time desc", Post.class)
-                        .setParameter("convertedDate1", formatDateTime())
-                        .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
-                        .setParameter("distance", distance);
-                posts = query1.getResultList();
+                geoPosts = filterByTime(postGeoIndexService.findNearby(longitude, latitude, distance, geoPost -> true), now, false);
+                geoPosts.sort(PostGeoIndexService.byTime().reversed());
                 break;
             case "manner":
-                Query query2 = em.createNativeQuery("SELECT id, content, created_at, is_letter, latitude, location, longitude,"
-                                + "modified_at, personnel, place, time, title, user_id , "
-                                + "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS 'distance' "
-                                + "FROM post AS p "
-                                + "INNER JOIN (SELECT AVG(u.manner_temp) AS avg_temp, i.post_id AS id FROM invited_users AS i "
-                                + "INNER JOIN userinfo AS u "
-                                + "ON i.user_id = u.id "
-                                + "GROUP BY i.post_id) AS s "
-                                + "ON p.id = s.id "
-                                + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude)) < :distance "
-                                + "AND p.time > :convertedDate1 "
-                                + "GROUP BY id "
-                                + "ORDER BY avg_temp DESC", Post.class)
-                        .setParameter("convertedDate1", formatDateTime())
-                        .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
-                        .setParameter("distance", distance);
-                posts = query2.getResultList();
+                geoPosts = sortByManner(filterByTime(
+                        postGeoIndexService.findNearby(longitude, latitude, distance, geoPost -> true), now, true),
+                        Pageable.unpaged());
                 break;
         }
-        if (posts.size() < 1) {
-            throw new PostApiException("게시글이 없습니다");
-        }
-        List<PostResponseDto> postList = postSearchService.searchTimeOrMannerPostList(posts, userId);
+        return new FeedDto(Collections.singletonMap("posts", postSearchService.searchIndexedPostList(geoPosts, null)));
+    }
 
-        return new ResponseEntity<>(new FinalResponseDto<>(true, "게시글 조회 성공", postList, user.getIsOwner()), HttpStatus.OK);
+    // 약속시간이 지났는지(after = false) / 남았는지(after = true) 로 거르기
+    private List<PostGeoDto> filterByTime(List<PostGeoDto> geoPosts, LocalDateTime now, boolean after) {
+        return geoPosts.stream()
+                .filter(geoPost -> after ? geoPost.getTime().isAfter(now) : geoPost.getTime().isBefore(now))
+                .collect(Collectors.toList());
+    }
+
+    // 참여자 평균 매너온도 순 정렬 (참여자가 없는 게시글은 제외)
+    private List<PostGeoDto> sortByManner(List<PostGeoDto> geoPosts, Pageable pageable) {
+        if (geoPosts.isEmpty()) {
+            return geoPosts;
+        }
+        Map<Long, PostGeoDto> geoPostMap = new HashMap<>();
+        for (PostGeoDto geoPost : geoPosts) {
+            geoPostMap.put(geoPost.getId(), geoPost);
+        }
+        List<PostGeoDto> result = new ArrayList<>();
+        for (Long postId : postAggregateRepository.findPostIdsOrderByAvgTemp(geoPostMap.keySet(), pageable)) {
+            result.add(geoPostMap.get(postId));
+        }
+        return result;
     }
 
     //게시글 상세 조회
-    @Transactional
+    @Transactional(readOnly = true)
     public ResponseEntity<FinalResponseDto<?>> getPostsDetails(Long postId, Long userId) {
         User user = checkUser(userId);
         Post post = checkPost(postId);
         Like like = likeRepository.findByUser_IdAndPost_Id(userId, post.getId()).orElse(null);
         PostDetailsResponseDto postDetailsResponseDto = postSearchService.detailPost(like, post);
-        Optional<List<InvitedUsers>> invitedUsers = Optional.ofNullable((invitedUsersRepository.findAllByUserId(userId)));
-
-        if (!invitedUsers.isPresent()) {
-            throw new PostApiException("게시글 조회 실패");
-        }
-        for (InvitedUsers users : invitedUsers.get()) {
-            if (users.getPostId().equals(postId)) {
-                if (users.getReadCheck()) {
-                    users.setReadCheck(false);
-                    users.setReadCheckTime(LocalDateTime.now());
-                }
-            }
-        }
+        readReceiptService.away(userId, Collections.singletonList(String.valueOf(postId))); // 채팅방 밖
         return new ResponseEntity<>(new FinalResponseDto<>(true, "게시글 조회 성공", postDetailsResponseDto, user.getIsOwner()), HttpStatus.OK);
     }
 
@@ -264,8 +254,7 @@ public class PostService {
 //        }
 
         //약속시간 예외처리
-        DateTimeFormatter inputFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        LocalDateTime PromiseDateTime = LocalDateTime.parse(requestDto.getTime(), inputFormat);
+        LocalDateTime PromiseDateTime = PostTimeFormatter.parse(requestDto.getTime());
         LocalDateTime now = LocalDateTime.now();
         if (!PromiseDateTime.isAfter(now.minusMinutes(10)) || PromiseDateTime.isAfter(now.plusDays(1))) {
             throw new PostApiException("약속시간은 현재시간 이후 부터 24시간 이내에 가능합니다.");
@@ -313,6 +302,7 @@ public class PostService {
         Point point = mapSearchService.makePoint(searchMapDto.getLongitude(), searchMapDto.getLatitude());
         Post post = new Post(user, requestDto, searchMapDto.getLongitude(), searchMapDto.getLatitude(), point);
         postRepository.save(post);
+        postGeoIndexService.put(post);
         UserDto userDto = new UserDto(user);
         chatRoomRepository.createChatRoom(post, userDto);
 
@@ -338,6 +328,8 @@ public class PostService {
         SearchMapDto searchMapDto = mapSearchService.findLatAndLong(requestDto.getPlace());
         Point point = mapSearchService.makePoint(searchMapDto.getLongitude(), searchMapDto.getLatitude());
         post.update(searchMapDto.getLongitude(), searchMapDto.getLatitude(), requestDto, point);
+        postGeoIndexService.put(post);
+        chatRoomSummaryRepository.updatePost(post);
 
         return new ResponseEntity<>(new FinalResponseDto<>(true, "게시글 수정 성공"), HttpStatus.OK);
     }
@@ -360,7 +352,7 @@ public class PostService {
                 .postUrls(post.getPostUrls())
                 .categories(post.getCategories())
                 .tags(post.getTags())
-                .time(post.getTime())
+                .time(PostTimeFormatter.format(post.getTime()))
                 .place(post.getPlace())
                 .personnel(post.getPersonnel())
                 .isLetter(post.getIsLetter())
@@ -380,22 +372,16 @@ public class PostService {
         if (!post.getUser().getId().equals(userId)) {
             throw new PostApiException("본인 게시글이 아닙니다.");
         } else {
+            chatMessageWriter.flush(); // 채팅방을 잠그기 전에 이 서버의 저장 대기 메시지까지
             if (invitedUsersRepository.existsByPostId(postId)) {
                 invitedUsersRepository.deleteAllByPostId(postId);
             }
             likeRepository.deleteByPostId(postId);
             postRepository.deleteById(postId);
+            postAggregateService.remove(postId);
+            postGeoIndexService.remove(postId);
             user.setIsOwner(false);
-            ChatRoom chatRoom = chatRoomJpaRepository.findByRoomId(String.valueOf(postId));
-            List<ChatMessage> chatMessage = chatMessageJpaRepository.findAllByRoomId(String.valueOf(postId));
-            ResignChatRoom resignChatRoom = new ResignChatRoom(chatRoom);
-            resignChatRoomJpaRepository.save(resignChatRoom);
-            for (ChatMessage message : chatMessage) {
-                ResignChatMessage resignChatMessage = new ResignChatMessage(message);
-                resignChatMessageJpaRepository.save(resignChatMessage);
-            }
-            chatMessageJpaRepository.deleteByRoomId(String.valueOf(post.getId()));
-            chatRoomJpaRepository.deleteByRoomId(String.valueOf(postId));
+            chatRoomArchiveService.archive(String.valueOf(postId));
             return new ResponseEntity<>(new FinalResponseDto<>(true, "게시글 삭제 성공", user.getIsOwner()), HttpStatus.OK);
         }
     }
@@ -405,19 +391,13 @@ public class PostService {
     public ResponseEntity<FinalResponseDto<?>> getLikedPosts(Long userId,Double latitude, Double longitude) throws ParseException {
         User user = checkUser(userId);
 
-        Query query = em.createNativeQuery(
-                        "SELECT id, content, created_at, is_letter, latitude, location, longitude,"
-                                + "modified_at, personnel, place, time, title, user_id , "
-                                + "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS 'distance' "
-                                + "FROM post AS p "
-                                + "WHERE p.id in (SELECT l.post_id FROM liketable AS l WHERE user_id = " + userId + " "
-                                + "AND is_like = true )"
-                                + "ORDER BY id", Post.class)
-                .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude));
-        List<Post> posts = query.getResultList();
-
+        Map<String, Object> params = new HashMap<>();
+        params.put("myPoint", mapSearchService.makePoint(longitude, latitude));
+        List<PostCardDto> cards = postCardService.findNearby(
+                "WHERE p.id IN (SELECT l.post_id FROM liketable AS l WHERE l.user_id = :userId AND l.is_like = true) "
+                        + "ORDER BY p.id", params, userId);
 
-        List<PostResponseDto> postList = postSearchService.searchLikePostList(posts, userId);
+        List<PostResponseDto> postList = postSearchService.searchLikePostList(cards);
         return new ResponseEntity<>(new FinalResponseDto<>(true, "좋아요한 게시글 조회 성공", postList, user.getIsOwner()), HttpStatus.OK);
     }
 
@@ -441,136 +421,161 @@ public class PostService {
 
     // 더보기 무한 스크롤
     @Transactional(readOnly = true)
-    public ResponseEntity<FinalResponseDto<?>> morePostListInfiniteScroll(Long lastPoint, Long userId, String status, Double latitude, Double longitude, int size) throws ParseException {
+    public ResponseEntity<FinalResponseDto<?>> morePostListInfiniteScroll(Long lastPoint, String cursor, Long userId, String status, Double latitude, Double longitude, int size) throws ParseException {
         User user = checkUser(userId);
-        List<Post> posts = new ArrayList<>();
+        List<PostCardDto> cards = new ArrayList<>();
+        PostCursor postCursor;
+        String nextCursor = null;
+        Map<String, Object> params = new HashMap<>();
+        params.put("myPoint", mapSearchService.makePoint(longitude, latitude));
+        params.put("boundingBox", mapSearchService.makeBoundingBox(longitude, latitude, distance));
+        params.put("distance", distance);
+        params.put("pageSize", size);
         switch (status) {
             case "endTime":
-                Query query = em.createNativeQuery("SELECT id, content, created_at, is_letter, latitude, location, longitude,"
-                                + "modified_at, personnel, place, time, title, user_id , "
-                                + "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS 'distance' "
-                                + "FROM post AS p "
-                                + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude)) < :distance "
-                                + "AND p.time > (SELECT post.time FROM post WHERE id = :lastId) "
-                                + "ORDER BY p.time "
-                                + "LIMIT :pageSize", Post.class)
-                        .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
-                        .setParameter("distance", distance)
-                        .setParameter("lastId", lastPoint)
-                        .setParameter("pageSize", size);
-                posts = query.getResultList();
+                postCursor = cursor == null ? timeCursor(lastPoint) : PostCursor.decode(cursor);
+                params.put("lastKey", postCursor.getTimeKey());
+                params.put("lastId", postCursor.getId());
+                cards = postCardService.findNearby("WHERE MBRContains(ST_GeomFromText(:boundingBox), p.location) "
+                        + "AND p.time >= :lastKey AND (p.time > :lastKey OR p.id > :lastId) "
+                        + "HAVING distance < :distance "
+                        + "ORDER BY p.time, p.id "
+                        + "LIMIT :pageSize", params, userId);
+                if (!cards.isEmpty()) {
+                    PostCardDto last = cards.get(cards.size() - 1);
+                    nextCursor = PostCursor.encode(PostTimeFormatter.format(last.getTime()), last.getId());
+                }
                 break;
             case "realTime":
-                Query query1 = em.createNativeQuery("SELECT id, content, created_at, is_letter, latitude, location, longitude,"
-                                + "modified_at, personnel, place, time, title, user_id , "
-                                + "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS 'distance' "
-                                + "FROM post AS p "
-                                + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude)) < :distance "
-                                + "AND p.time < (SELECT post.time FROM post WHERE id = :lastId) "
-                                + "ORDER BY p.time desc "
-                                + "LIMIT :pageSize", Post.class)
-                        .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
-                        .setParameter("distance", distance)
-                        .setParameter("lastId", lastPoint)
-                        .setParameter("pageSize", size);
-                posts = query1.getResultList();
+                postCursor = cursor == null ? timeCursor(lastPoint) : PostCursor.decode(cursor);
+                params.put("lastKey", postCursor.getTimeKey());
+                params.put("lastId", postCursor.getId());
+                cards = postCardService.findNearby("WHERE MBRContains(ST_GeomFromText(:boundingBox), p.location) "
+                        + "AND p.time <= :lastKey AND (p.time < :lastKey OR p.id < :lastId) "
+                        + "HAVING distance < :distance "
+                        + "ORDER BY p.time desc, p.id desc "
+                        + "LIMIT :pageSize", params, userId);
+                if (!cards.isEmpty()) {
+                    PostCardDto last = cards.get(cards.size() - 1);
+                    nextCursor = PostCursor.encode(PostTimeFormatter.format(last.getTime()), last.getId());
+                }
                 break;
             case "manner":
-                Query query2 = em.createNativeQuery("SELECT id, content, created_at, is_letter, latitude, location, longitude,"
-                                + "modified_at, personnel, place, time, title, user_id , "
-                                + "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS 'distance' "
-                                + "FROM post AS p "
-                                + "INNER JOIN (SELECT AVG(u.manner_temp) AS avg_temp, i.post_id AS id FROM invited_users AS i "
-                                + "INNER JOIN userinfo AS u "
-                                + "ON i.user_id = u.id "
-                                + "GROUP BY i.post_id) AS s "
-                                + "ON p.id = s.id "
-                                + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude)) < :distance "
-                                + "AND p.time > :convertedDate1 "
-                                + "AND avg_temp < :lastPoint "
-                                + "GROUP BY id "
-                                + "ORDER BY avg_temp DESC "
-                                + "LIMIT :pageSize", Post.class)
-                        .setParameter("lastPoint", lastPoint)
-                        .setParameter("convertedDate1", formatDateTime())
-                        .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
-                        .setParameter("distance", distance)
-                        .setParameter("pageSize", size);
-                posts = query2.getResultList();
+                // 커서가 없으면 기존처럼 lastPoint 를 평균 매너온도로 보고 그 미만부터 조회
+                // (avg_temp, post_id) 내림차순 seek, idx_post_aggregate_avg_temp_post_id 사용
+                // avg_temp 는 참여/나가기, 매너온도 변경마다 바뀌므로 페이지를 넘기는 사이 온도가 커서를 넘어간 게시글은
+                // 빠지거나 다시 나올 수 있다. (스냅샷을 두지 않는다, 클라이언트는 postId 로 중복을 거른다)
+                postCursor = cursor == null ? PostCursor.of(lastPoint, 0L) : PostCursor.decode(cursor);
+                params.put("lastKey", postCursor.getDoubleKey());
+                params.put("lastId", postCursor.getId());
+                params.put("convertedDate1", LocalDateTime.now());
+                cards = postCardService.findNearby("WHERE MBRContains(ST_GeomFromText(:boundingBox), p.location) "
+                        + "AND p.time > :convertedDate1 "
+                        + "AND s.join_count > 0 "
+                        + "AND s.avg_temp <= :lastKey AND (s.avg_temp < :lastKey OR s.post_id < :lastId) "
+                        + "HAVING distance < :distance "
+                        + "ORDER BY s.avg_temp DESC, s.post_id DESC "
+                        + "LIMIT :pageSize", params, userId);
+                if (!cards.isEmpty()) {
+                    PostCardDto last = cards.get(cards.size() - 1);
+                    nextCursor = PostCursor.encode(last.getAvgTempKey(), last.getId());
+                }
                 break;
         }
 
-        if (posts.size() < 1) {
+        if (cards.size() < 1) {
             throw new PostApiException("게시글이 없습니다");
         }
-        List<PostResponseDto> postList = postSearchService.searchTimeOrMannerPostList(posts, userId);
+        List<PostResponseDto> postList = postSearchService.searchPostList(cards);
 
-        return new ResponseEntity<>(new FinalResponseDto<>(true, "게시글 조회 성공", postList, user.getIsOwner()), HttpStatus.OK);
+        return new ResponseEntity<>(new FinalResponseDto<>(true, "게시글 조회 성공", postList, user.getIsOwner(), nextCursor), HttpStatus.OK);
     }
 
     // 카테고리 검색 무한 스크롤
     @Transactional(readOnly = true)
-    public ResponseEntity<FinalResponseDto<?>> getCategoriesInfiniteScroll(Long lastId, List<String> categories, Double latitude, Double longitude, Long userId, int size) throws ParseException {
+    public ResponseEntity<FinalResponseDto<?>> getCategoriesInfiniteScroll(Long lastId, String cursor, List<String> categories, Double latitude, Double longitude, Long userId, int size) throws ParseException {
         User user = checkUser(userId);
-        String mergeList = postSearchService.categoryOrTagListMergeString(categories);
-        Query query = em.createNativeQuery(
-                        "SELECT id, content, created_at, is_letter, latitude, location, longitude,"
-                                + "modified_at, personnel, place, time, title, user_id , "
-                                + "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS 'distance' "
-                                + "FROM post AS p "
-                                + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(longitude, latitude)) > "
-                                + "(SELECT ST_DISTANCE_SPHERE(:myPoint, POINT(longitude, latitude)) FROM post "
-                                + "WHERE id = :lastId) "
-                                + "AND ST_DISTANCE_SPHERE(:myPoint, POINT(longitude, latitude)) < :distance "
-                                + "AND p.id in (select u.post_id from post_categories u "
-                                + "WHERE u.category in (" + mergeList + ")) "
-                                + "ORDER BY distance "
-                                + "LIMIT :pageSize", Post.class)
-                .setParameter("lastId", lastId)
-                .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
-                .setParameter("distance", distance)
-                .setParameter("pageSize", size);
-
-        List<Post> posts = query.getResultList();
-        if (posts.size() < 1) {
+        // 선택하지 않으면 전체 카테고리 (태그도 카테고리명으로 조회, 피드 목록과 동일)
+        List<String> filters = categories == null || categories.isEmpty() ? PostGeoDto.CATEGORIES : categories;
+        PostCursor postCursor = cursor == null ? distanceCursor(lastId, latitude, longitude) : PostCursor.decode(cursor);
+        List<PostCardDto> cards = postCardService.findNearby(
+                "WHERE MBRContains(ST_GeomFromText(:boundingBox), p.location) "
+                        + "AND p.id in (select u.post_id from post_categories u "
+                        + "WHERE u.category in (:filters)) "
+                        + "HAVING distance < :distance "
+                        + "AND distance >= :lastKey AND (distance > :lastKey OR id > :lastId) "
+                        + "ORDER BY distance, p.id "
+                        + "LIMIT :pageSize", distanceScrollParams(postCursor, filters, latitude, longitude, size), userId);
+
+        if (cards.size() < 1) {
             throw new PostApiException("더 이상 게시글이 존재하지 않습니다.");
         }
+        PostCardDto last = cards.get(cards.size() - 1);
+        String nextCursor = PostCursor.encode(last.getDistance(), last.getId());
 
-        List<PostResponseDto> postList = postSearchService.searchPostList(posts, userId);
+        List<PostResponseDto> postList = postSearchService.searchPostList(cards);
 
-        return new ResponseEntity<>(new FinalResponseDto<>(true, "게시글 조회 성공", postList, user.getIsOwner()), HttpStatus.OK);
+        return new ResponseEntity<>(new FinalResponseDto<>(true, "게시글 조회 성공", postList, user.getIsOwner(), nextCursor), HttpStatus.OK);
     }
 
     // 태그 검색 무한 스크롤
     @Transactional(readOnly = true)
-    public ResponseEntity<FinalResponseDto<?>> gettagsInfiniteScroll(Long lastId, List<String> tags, Double latitude, Double longitude, Long userId, int size) throws ParseException {
+    public ResponseEntity<FinalResponseDto<?>> gettagsInfiniteScroll(Long lastId, String cursor, List<String> tags, Double latitude, Double longitude, Long userId, int size) throws ParseException {
         User user = checkUser(userId);
-        String mergeList = postSearchService.categoryOrTagListMergeString(tags);
-        Query query = em.createNativeQuery(
-                        "SELECT id, content, created_at, is_letter, latitude, location, longitude,"
-                                + "modified_at, personnel, place, time, title, user_id , "
-                                + "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS 'distance' "
-                                + "FROM post AS p "
-                                + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(longitude, latitude)) > "
-                                + "(SELECT ST_DISTANCE_SPHERE(:myPoint, POINT(longitude, latitude)) FROM post "
-                                + "WHERE id = :lastId) "
-                                + "AND ST_DISTANCE_SPHERE(:myPoint, POINT(longitude, latitude)) < :distance "
-                                + "AND p.id in (select u.post_id from post_tags u "
-                                + "WHERE u.tag in (" + mergeList + ")) "
-                                + "ORDER BY distance "
-                                + "LIMIT :pageSize", Post.class)
-                .setParameter("lastId", lastId)
-                .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
-                .setParameter("distance", distance)
-                .setParameter("pageSize", size);
-
-        List<Post> posts = query.getResultList();
-        if (posts.size() < 1) {
+        // 선택하지 않으면 전체 카테고리 (태그도 카테고리명으로 조회, 피드 목록과 동일)
+        List<String> filters = tags == null || tags.isEmpty() ? PostGeoDto.CATEGORIES : tags;
+        PostCursor postCursor = cursor == null ? distanceCursor(lastId, latitude, longitude) : PostCursor.decode(cursor);
+        List<PostCardDto> cards = postCardService.findNearby(
+                "WHERE MBRContains(ST_GeomFromText(:boundingBox), p.location) "
+                        + "AND p.id in (select u.post_id from post_tags u "
+                        + "WHERE u.tag in (:filters)) "
+                        + "HAVING distance < :distance "
+                        + "AND distance >= :lastKey AND (distance > :lastKey OR id > :lastId) "
+                        + "ORDER BY distance, p.id "
+                        + "LIMIT :pageSize", distanceScrollParams(postCursor, filters, latitude, longitude, size), userId);
+
+        if (cards.size() < 1) {
             throw new PostApiException("더 이상 게시글이 존재하지 않습니다.");
         }
-        List<PostResponseDto> postList = postSearchService.searchPostList(posts, userId);
+        PostCardDto last = cards.get(cards.size() - 1);
+        String nextCursor = PostCursor.encode(last.getDistance(), last.getId());
+        List<PostResponseDto> postList = postSearchService.searchPostList(cards);
 
-        return new ResponseEntity<>(new FinalResponseDto<>(true, "게시글 조회 성공", postList, user.getIsOwner()), HttpStatus.OK);
+        return new ResponseEntity<>(new FinalResponseDto<>(true, "게시글 조회 성공", postList, user.getIsOwner(), nextCursor), HttpStatus.OK);
+    }
+
+    // 거리순 무한 스크롤 공통 파라미터 (filters : 카테고리/태그 IN 목록)
+    private Map<String, Object> distanceScrollParams(PostCursor postCursor, List<String> filters,
+                                                     Double latitude, Double longitude, int size) throws ParseException {
+        Map<String, Object> params = new HashMap<>();
+        params.put("filters", filters);
+        params.put("lastKey", postCursor.getLongKey());
+        params.put("lastId", postCursor.getId());
+        params.put("myPoint", mapSearchService.makePoint(longitude, latitude));
+        params.put("boundingBox", mapSearchService.makeBoundingBox(longitude, latitude, distance));
+        params.put("distance", distance);
+        params.put("pageSize", size);
+        return params;
+    }
+
+    // 커서 없이 lastId 로 요청한 경우 해당 게시글의 약속시간 기준 커서 (게시글이 없으면 더 이상 조회할 게시글 없음)
+    private PostCursor timeCursor(Long lastId) {
+        Post post = postRepository.findById(lastId).orElseThrow(
+                () -> new PostApiException("게시글이 없습니다"));
+        return PostCursor.of(PostTimeFormatter.format(post.getTime()), post.getId());
+    }
+
+    // 커서 없이 lastId 로 요청한 경우 해당 게시글까지의 거리 기준 커서
+    private PostCursor distanceCursor(Long lastId, Double latitude, Double longitude) throws ParseException {
+        List<?> result = em.createNativeQuery("SELECT ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(longitude, latitude))) "
+                        + "FROM post WHERE id = :lastId")
+                .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
+                .setParameter("lastId", lastId)
+                .getResultList();
+        if (result.isEmpty()) {
+            throw new PostApiException("더 이상 게시글이 존재하지 않습니다.");
+        }
+        return PostCursor.of(((Number) result.get(0)).longValue(), lastId);
     }
 
     // 유저 존재 여부
@@ -594,24 +599,20 @@ public class PostService {
         if (!user.isPresent()) {
             return new ResponseEntity<>(new FinalResponseDto<>(false, "게시글 검색 실패"), HttpStatus.BAD_REQUEST);
         }
-        Query query = em.createNativeQuery("SELECT id, content, created_at, is_letter, latitude, location, longitude,"
-                                                    + "modified_at, personnel, place, time, title, user_id , "
-                                                    + "ROUND(ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude))) AS 'distance' "
-                                                    + "FROM post AS p "
-                                                    + "WHERE ST_DISTANCE_SPHERE(:myPoint, POINT(p.longitude, p.latitude)) < :distance "
-                                                    + "AND (p.id in (select u.post_id from post_categories u "
-                                                    + "WHERE u.category in ('" + keyword + "')) "
-                                                    + "OR u.tag in ('" + keyword +"'))"
-                                                    + "ORDER BY p.time", Post.class)
-                .setParameter("myPoint", mapSearchService.makePoint(longitude, latitude))
-                .setParameter("distance", 400000.0);
-        List<Post> posts = query.getResultList();
-        System.out.println(posts.get(0).getDistance());
-        if (posts.size() < 1) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("myPoint", mapSearchService.makePoint(longitude, latitude));
+        params.put("boundingBox", mapSearchService.makeBoundingBox(longitude, latitude, distance));
+        params.put("distance", distance);
+        params.put("keyword", keyword);
+        List<PostCardDto> cards = postCardService.findNearby("WHERE MBRContains(ST_GeomFromText(:boundingBox), p.location) "
+                + "AND (p.id in (select u.post_id from post_categories u WHERE u.category = :keyword) "
+                + "OR p.id in (select t.post_id from post_tags t WHERE t.tag = :keyword)) "
+                + "HAVING distance < :distance "
+                + "ORDER BY p.time", params, userId);
+        if (cards.size() < 1) {
             return new ResponseEntity<>(new FinalResponseDto<>(false, "게시글이 없습니다, 다른단어로 검색해주세요"), HttpStatus.BAD_REQUEST);
         }
-        List<PostResponseDto> postList = postSearchService.searchPostList(posts, userId);
+        List<PostResponseDto> postList = postSearchService.searchPostList(cards);
         return new ResponseEntity<>(new FinalResponseDto<>(true, "게시글 조회 성공", postList, user.get().getIsOwner()), HttpStatus.OK);
     }
 }
-
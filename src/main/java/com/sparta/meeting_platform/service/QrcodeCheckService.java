@@ -30,6 +30,7 @@ public class QrcodeCheckService {
     private final UserRoleCheckService userRoleCheckService;
     private final SocialGoogleService socialGoogleService;
     private final UserService userService;
+    private final PostAggregateService postAggregateService;
 
     //qr코드 일반로그인 유저 인증 처리
     @Transactional
@@ -57,6 +58,7 @@ public class QrcodeCheckService {
                 throw new QrcodeApiException("본인 게시글의 QR코드는 적용되지 않습니다.");
             } else {
                 user.updateMannerTempAndBungCount();
+                postAggregateService.changeMannerTemp(user.getId(), 5);
                 invitedUsers.updateQrCheck();
             }
         } catch (NullPointerException e) {
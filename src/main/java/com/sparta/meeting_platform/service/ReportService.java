@@ -23,6 +23,7 @@ public class ReportService {
 
     private final UserRepository userRepository;
     private final ReportRepository reportRepository;
+    private final PostAggregateService postAggregateService;
 
     // 유저 신고하기
     @Transactional
@@ -41,6 +42,7 @@ public class ReportService {
         Report report = new Report(reporterId, badMannerId, reportedUser.getNickName(), reportedUser.getProfileUrl(), history);
         reportRepository.save(report);
         reportedUser.setReport();
+        postAggregateService.changeMannerTemp(reportedUser.getId(), -5);
 
         return new ResponseEntity<>(new FinalResponseDto<>(true, "신고하기 성공"), HttpStatus.OK);
     }
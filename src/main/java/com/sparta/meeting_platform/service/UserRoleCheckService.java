@@ -21,6 +21,7 @@ public class UserRoleCheckService {
     private final ResignUserRepository resignUserRepository;
     private final EmailConfirmTokenRepository emailConfirmTokenRepository;
     private final EmailConfirmTokenService emailConfirmTokenService;
+    private final PostAggregateService postAggregateService;
 
     //유저 권한 체크
     @Transactional
@@ -44,6 +45,7 @@ public class UserRoleCheckService {
                 } else {
                     user.setRole(UserRoleEnum.USER);
                     user.setMannerTemp(user.getMannerTemp() + 25);
+                    postAggregateService.changeMannerTemp(user.getId(), 25);
                     break;
                 }
         }
@@ -1,8 +1,12 @@
 package com.sparta.meeting_platform.service;
 
 
+import com.sparta.meeting_platform.chat.model.InvitedUsers;
+import com.sparta.meeting_platform.chat.repository.ChatRoomMemberRepository;
 import com.sparta.meeting_platform.chat.repository.InvitedUsersRepository;
+import com.sparta.meeting_platform.chat.service.ChatSenderService;
 import com.sparta.meeting_platform.domain.EmailToken;
+import com.sparta.meeting_platform.domain.Post;
 import com.sparta.meeting_platform.domain.ResignUser;
 import com.sparta.meeting_platform.domain.User;
 import com.sparta.meeting_platform.domain.UserRoleEnum;
@@ -22,7 +26,11 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -42,6 +50,10 @@ public class UserService {
     private final RedisService redisService;
     private final FileExtFilter fileExtFilter;
     private final InvitedUsersRepository invitedUsersRepository;
+    private final PostGeoIndexService postGeoIndexService;
+    private final PostAggregateService postAggregateService;
+    private final ChatSenderService chatSenderService;
+    private final ChatRoomMemberRepository chatRoomMemberRepository;
 
 
     // 아이디(이메일) 중복 확인
@@ -143,6 +155,7 @@ public class UserService {
             profileUrl = user.get().getProfileUrl();
         }
         user.get().updateProfile(requestDto, profileUrl);
+        chatSenderService.evict(userId);
 
         return new ResponseEntity<>(
                 new FinalResponseDto<>(true, "프로필 수정 성공",
@@ -162,11 +175,26 @@ public class UserService {
         resignUserRepository.save(resignUser);
 
         // 영속 되는 데이터 삭제 ( 추후 cascade 설정 필요 )
+        Set<Long> joinedPostIds = new HashSet<>();
+        for (InvitedUsers invitedUsers : invitedUsersRepository.findAllByUserId(userId)) {
+            joinedPostIds.add(invitedUsers.getPostId());
+        }
         invitedUsersRepository.deleteByUserId(userId);
+        List<String> joinedRoomIds = new ArrayList<>();
+        for (Long postId : joinedPostIds) {
+            joinedRoomIds.add(String.valueOf(postId));
+        }
+        chatRoomMemberRepository.leave(userId, joinedRoomIds);
+        postAggregateService.refresh(joinedPostIds);
         likeRepository.deleteByUserId(userId);
         opinionRepository.deleteByUserId(userId);
+        for (Post post : postRepository.findAllByUserId(userId)) {
+            postAggregateService.remove(post.getId());
+            postGeoIndexService.remove(post.getId());
+        }
         postRepository.deleteByUserId(userId);
         userRepository.deleteById(userId);
+        chatSenderService.evict(userId);
 
         return new ResponseEntity<>(new FinalResponseDto<>(true, "회원 탈퇴 성공"), HttpStatus.OK);
     }
@@ -0,0 +1,70 @@
+package com.sparta.meeting_platform.util;
+
+import com.sparta.meeting_platform.exception.PostApiException;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/*
+ * 무한 스크롤 커서 : 정렬 기준값 + postId
+ * 클라이언트에는 Base64 문자열로만 내려가고, 다음 페이지는 (정렬 기준값, id) 다음 행부터 조회한다.
+ */
+@Getter
+public class PostCursor {
+    private static final String DELIMITER = "|";
+
+    private final String key;
+    private final Long id;
+
+    private PostCursor(String key, Long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public static String encode(Object key, Long id) {
+        String cursor = key + DELIMITER + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PostCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = decoded.lastIndexOf(DELIMITER);
+            return new PostCursor(decoded.substring(0, index), Long.parseLong(decoded.substring(index + 1)));
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new PostApiException("잘못된 커서 입니다.");
+        }
+    }
+
+    public static PostCursor of(Object key, Long id) {
+        return new PostCursor(String.valueOf(key), id);
+    }
+
+    public long getLongKey() {
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw new PostApiException("잘못된 커서 입니다.");
+        }
+    }
+
+    // 약속시간 커서 ("yyyy-MM-dd HH:mm:ss")
+    public LocalDateTime getTimeKey() {
+        try {
+            return LocalDateTime.parse(key, PostTimeFormatter.FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new PostApiException("잘못된 커서 입니다.");
+        }
+    }
+
+    public double getDoubleKey() {
+        try {
+            return Double.parseDouble(key);
+        } catch (NumberFormatException e) {
+            throw new PostApiException("잘못된 커서 입니다.");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.sparta.meeting_platform.util;
+
+import com.sparta.meeting_platform.exception.PostApiException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+/*
+ * 게시글 약속시간(Post.time) 문자열 변환
+ * - API 요청/응답, 커서는 기존과 같은 "yyyy-MM-dd HH:mm:ss" 문자열을 쓴다.
+ * - 목록 카드의 "N분 경과 / N시간 경과 / H시 시작 예정" 문구는 미리 만들어 둔 문자열을 돌려준다.
+ */
+public class PostTimeFormatter {
+    public static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] MINUTES_PASSED = new String[60];
+    private static final String[] HOURS_PASSED = new String[49]; // 약속시간 이후 24시간 + 스케줄러 지연 여유
+    private static final String[] STARTS_TODAY = new String[24];
+    private static final String[] STARTS_TOMORROW = new String[24];
+
+    static {
+        for (int i = 0; i < MINUTES_PASSED.length; i++) {
+            MINUTES_PASSED[i] = i + "분 경과";
+        }
+        for (int i = 0; i < HOURS_PASSED.length; i++) {
+            HOURS_PASSED[i] = i + "시간 경과";
+        }
+        for (int i = 0; i < STARTS_TODAY.length; i++) {
+            STARTS_TODAY[i] = i + "시 시작 예정";
+            STARTS_TOMORROW[i] = "내일 " + i + "시 시작 예정";
+        }
+    }
+
+    private PostTimeFormatter() {
+    }
+
+    public static LocalDateTime parse(String time) {
+        try {
+            return LocalDateTime.parse(time, FORMAT);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new PostApiException("약속시간 형식이 올바르지 않습니다.");
+        }
+    }
+
+    public static String format(LocalDateTime time) {
+        return time == null ? null : time.format(FORMAT);
+    }
+
+    // 목록 카드에 나가는 약속시간 문구
+    public static String toLabel(LocalDateTime time, LocalDateTime now) {
+        if (!time.isAfter(now)) {
+            long minutes = ChronoUnit.MINUTES.between(time, now);
+            if (minutes < 60) {
+                return MINUTES_PASSED[(int) minutes];
+            }
+            long hours = minutes / 60;
+            return hours < HOURS_PASSED.length ? HOURS_PASSED[(int) hours] : hours + "시간 경과";
+        }
+        if (time.getDayOfMonth() == now.getDayOfMonth()) {
+            return STARTS_TODAY[time.getHour()];
+        }
+        return STARTS_TOMORROW[time.getHour()];
+    }
+}
@@ -1,78 +1,223 @@
 package com.sparta.meeting_platform.util;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.sparta.meeting_platform.chat.dto.ChatMessageDto;
 import com.sparta.meeting_platform.chat.model.ChatMessage;
-import com.sparta.meeting_platform.chat.model.ChatRoom;
-import com.sparta.meeting_platform.chat.model.ResignChatMessage;
-import com.sparta.meeting_platform.chat.model.ResignChatRoom;
 import com.sparta.meeting_platform.chat.repository.*;
+import com.sparta.meeting_platform.chat.service.ChatMessageWriter;
+import com.sparta.meeting_platform.chat.service.ChatRoomArchiveService;
 import com.sparta.meeting_platform.chat.service.RedisPublisher;
 import com.sparta.meeting_platform.domain.Post;
 import com.sparta.meeting_platform.domain.User;
 import com.sparta.meeting_platform.repository.LikeRepository;
 import com.sparta.meeting_platform.repository.PostRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Scheduled;
+import com.sparta.meeting_platform.service.LeaseLockService;
+import com.sparta.meeting_platform.service.PostAggregateService;
+import com.sparta.meeting_platform.service.PostGeoIndexService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
-@RequiredArgsConstructor
+/*
+ * 약속시간 이후 24시간이 지난 게시글 정리
+ * - 가장 이른 약속시간 + 24시간(다음 만료 시각)에 맞춰 깨어나고, 1분마다 전체 게시글을 읽지 않는다.
+ * - 만료된 게시글은 (time, id) 인덱스 순서로 BATCH_SIZE 씩, 배치마다 별도 트랜잭션으로 처리한다.
+ * - 게시글 생성/수정(PostGeoIndexService 변경 알림, 다른 서버 포함)으로 더 이른 만료 시각이 생기면 다시 예약한다.
+ * - 놓친 변경이 있어도 MAX_SLEEP_MINUTES 안에는 한번 깨어난다.
+ * - 여러 서버 중 EXPIRY_LOCK 을 얻은 한 곳에서만 처리한다. 락은 처리하는 동안 leaseScheduler 에서 계속 연장한다.
+ *   (채팅방 보관의 메시지 flush 처럼 느린 배치가 있어도 LEASE_TTL 이 지나 풀리지 않게)
+ * - 배치 트랜잭션은 먼저 lease_fence 행을 자기 token 으로 잠그고(fencing), 더 나중에 락을 얻은 서버가 이미
+ *   반영했거나 처리 중 락을 잃었으면 롤백한다.
+ * - 채팅방 종료 알림(QUIT)과 Redis 정리는 배치가 커밋된 뒤에 보낸다.
+ *   락을 얻지 못한 서버는 LEASE_TTL 뒤에 다시 시도하므로 처리하던 서버가 죽으면 몇 초 안에 넘겨받는다.
+ */
+@Slf4j
 @Component
 public class Scheduler {
+    private static final int BATCH_SIZE = 50;
+    private static final long EXPIRE_HOURS = 24;
+    private static final long MAX_SLEEP_MINUTES = 10;
+    private static final long RETRY_MINUTES = 1;
+    private static final String EXPIRY_LOCK = "POST_EXPIRY";
+    private static final Duration LEASE_TTL = Duration.ofSeconds(10);
+
     private final PostRepository postRepository;
     private final InvitedUsersRepository invitedUsersRepository;
-    private final ChatRoomJpaRepository chatRoomJpaRepository;
-    private final ChatMessageJpaRepository chatMessageJpaRepository;
-    private final ResignChatRoomJpaRepository resignChatRoomJpaRepository;
-    private final ResignChatMessageJpaRepository resignChatMessageJpaRepository;
+    private final ChatRoomArchiveService chatRoomArchiveService;
+    private final ChatMessageWriter chatMessageWriter;
     private final LikeRepository likeRepository;
     private final RedisPublisher redisPublisher;
-    // 초, 분, 시, 일, 월, 주 순서
-    @Scheduled(cron = "0 */1 * * * *") // 1분마다
-    @Transactional
-    public void deletePost() throws JsonProcessingException {
-        List<Post> postList = postRepository.findAll();
-        for (Post post : postList) {
-            DateTimeFormatter inputFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            LocalDateTime localDateTime = LocalDateTime.parse(post.getTime(), inputFormat);
-            if (localDateTime.plusHours(24).isBefore(LocalDateTime.now())) {
-                User user = post.getUser();
-                user.setIsOwner(false);
-                ChatRoom chatRoom = chatRoomJpaRepository.findByRoomId(String.valueOf(post.getId()));
-                List<ChatMessage> chatMessage = chatMessageJpaRepository.findAllByRoomId(String.valueOf(post.getId()));
-                ResignChatRoom resignChatRoom = new ResignChatRoom(chatRoom);
-                resignChatRoomJpaRepository.save(resignChatRoom);
+    private final PostGeoIndexService postGeoIndexService;
+    private final PostAggregateService postAggregateService;
+    private final TaskScheduler expiryScheduler;
+    private final LeaseLockService leaseLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
 
-                for (ChatMessage message : chatMessage) {
-                    ResignChatMessage resignChatMessage = new ResignChatMessage(message);
-                    resignChatMessageJpaRepository.save(resignChatMessage);
-                }
-                chatMessageJpaRepository.deleteByRoomId(String.valueOf(post.getId()));
-                chatRoomJpaRepository.deleteByRoomId(String.valueOf(post.getId()));
-                if (invitedUsersRepository.existsByPostId(post.getId())) {
-                    invitedUsersRepository.deleteAllByPostId(post.getId());
+    // 만료됐지만 아직 처리하지 않은 게시글 수
+    private final AtomicLong backlog = new AtomicLong();
+    private Timer sweepTimer;
+    private Counter expiredCounter;
+
+    private ScheduledFuture<?> nextRun;
+    private LocalDateTime nextRunAt;
+
+    public Scheduler(PostRepository postRepository, InvitedUsersRepository invitedUsersRepository,
+                     ChatRoomArchiveService chatRoomArchiveService, ChatMessageWriter chatMessageWriter,
+                     LikeRepository likeRepository, RedisPublisher redisPublisher,
+                     PostGeoIndexService postGeoIndexService, PostAggregateService postAggregateService,
+                     @Qualifier("expiryScheduler") TaskScheduler expiryScheduler, LeaseLockService leaseLockService,
+                     PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.invitedUsersRepository = invitedUsersRepository;
+        this.chatRoomArchiveService = chatRoomArchiveService;
+        this.chatMessageWriter = chatMessageWriter;
+        this.likeRepository = likeRepository;
+        this.redisPublisher = redisPublisher;
+        this.postGeoIndexService = postGeoIndexService;
+        this.postAggregateService = postAggregateService;
+        this.expiryScheduler = expiryScheduler;
+        this.leaseLockService = leaseLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    private void init() {
+        meterRegistry.gauge("post.expiry.backlog", backlog);
+        sweepTimer = meterRegistry.timer("post.expiry.sweep");
+        expiredCounter = meterRegistry.counter("post.expiry.expired");
+        // 게시글 생성/수정시 새 만료 시각이 더 이르면 다시 예약
+        postGeoIndexService.addChangeListener((old, geoPost) -> {
+            if (geoPost != null) {
+                scheduleAt(geoPost.getTime().plusHours(EXPIRE_HOURS));
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduleAt(LocalDateTime.now());
+    }
+
+    // 예약된 시각보다 이르면 다시 예약
+    public synchronized void scheduleAt(LocalDateTime runAt) {
+        if (nextRun != null && !nextRun.isDone() && !runAt.isBefore(nextRunAt)) {
+            return;
+        }
+        if (nextRun != null) {
+            nextRun.cancel(false);
+        }
+        nextRunAt = runAt;
+        nextRun = expiryScheduler.schedule(this::sweep,
+                Date.from(runAt.atZone(ZoneId.systemDefault()).toInstant()));
+    }
+
+    // 만료된 게시글을 배치 단위로 모두 처리하고 다음 만료 시각 예약
+    private void sweep() {
+        synchronized (this) {
+            nextRun = null;
+        }
+        LeaseLockService.Lease lease = leaseLockService.tryAcquire(EXPIRY_LOCK, LEASE_TTL);
+        if (lease == null) {
+            // 다른 서버가 처리중
+            scheduleAt(LocalDateTime.now().plus(LEASE_TTL));
+            return;
+        }
+        leaseLockService.keepAlive(lease, LEASE_TTL);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            LocalDateTime expiredBefore = LocalDateTime.now().minusHours(EXPIRE_HOURS);
+            backlog.set(postRepository.countByTimeBefore(expiredBefore));
+            int size;
+            do {
+                Integer processed = transactionTemplate.execute(status -> {
+                    if (!leaseLockService.fence(lease)) {
+                        status.setRollbackOnly();
+                        return -1;
+                    }
+                    int count = deletePosts(expiredBefore);
+                    if (lease.isLost()) {
+                        status.setRollbackOnly();
+                        return -1;
+                    }
+                    return count;
+                });
+                size = processed == null ? 0 : processed;
+                if (size < 0) {
+                    log.warn("게시글 만료 처리 락 만료 또는 fencing 실패 (token : {}), 배치 롤백", lease.getToken());
+                    scheduleAt(LocalDateTime.now().plus(LEASE_TTL));
+                    return;
                 }
-                likeRepository.deleteByPostId(post.getId());
-                postRepository.deleteById(post.getId());
-                LocalDateTime createdAt = LocalDateTime.now();
-                String createdAtString = createdAt.format(DateTimeFormatter.ofPattern("dd,MM,yyyy,HH,mm,ss", Locale.KOREA));
-                ChatMessageDto chatMessageDto = new ChatMessageDto();
-                chatMessageDto.setType(ChatMessage.MessageType.QUIT);
-                chatMessageDto.setQuitOwner(true);
-                chatMessageDto.setRoomId(String.valueOf(post.getId()));
-                chatMessageDto.setUserId(user.getId());
-                chatMessageDto.setSender(user.getNickName());
-                chatMessageDto.setProfileUrl(user.getProfileUrl());
-                chatMessageDto.setCreatedAt(createdAtString);
-                chatMessageDto.setMessage("약속시간 이후 24시간이 지나 더 이상 대화를 할 수 없으며 채팅방을 나가면 다시 입장할 수 없습니다.");
-                redisPublisher.publish(ChatRoomRepository.getTopic(String.valueOf(post.getId())), chatMessageDto);
+                expiredCounter.increment(size);
+                backlog.set(Math.max(backlog.get() - size, 0));
+            } while (size == BATCH_SIZE);
+
+            LocalDateTime next = LocalDateTime.now().plusMinutes(MAX_SLEEP_MINUTES);
+            LocalDateTime firstTime = postRepository.findFirstTime();
+            if (firstTime != null && firstTime.plusHours(EXPIRE_HOURS).isBefore(next)) {
+                next = firstTime.plusHours(EXPIRE_HOURS);
+            }
+            scheduleAt(next);
+        } catch (Exception e) {
+            log.error("게시글 만료 처리 실패 : {}", e.getMessage());
+            scheduleAt(LocalDateTime.now().plusMinutes(RETRY_MINUTES));
+        } finally {
+            sample.stop(sweepTimer);
+            leaseLockService.release(lease);
+        }
+    }
+
+    // 배치 하나 처리 (호출하는 쪽 트랜잭션), 처리한 게시글 수 반환
+    // 종료 알림은 커밋된 뒤에만 보낸다. (롤백된 배치의 채팅방은 다음 처리 때 다시 알린다)
+    private int deletePosts(LocalDateTime expiredBefore) {
+        // 이 서버의 저장 대기 메시지는 채팅방을 잠그기 전에 한번만 (앞서 보관한 방이 잠긴 채로 기다리지 않게)
+        chatMessageWriter.flush();
+        List<Post> postList = postRepository.findAllByTimeBeforeOrderByTimeAscIdAsc(
+                expiredBefore, PageRequest.of(0, BATCH_SIZE));
+        for (Post post : postList) {
+            User user = post.getUser();
+            user.setIsOwner(false);
+            chatRoomArchiveService.archive(String.valueOf(post.getId()));
+            if (invitedUsersRepository.existsByPostId(post.getId())) {
+                invitedUsersRepository.deleteAllByPostId(post.getId());
             }
+            likeRepository.deleteByPostId(post.getId());
+            postRepository.deleteById(post.getId());
+            postAggregateService.remove(post.getId());
+            postGeoIndexService.remove(post.getId());
+            LocalDateTime createdAt = LocalDateTime.now();
+            String createdAtString = createdAt.format(DateTimeFormatter.ofPattern("dd,MM,yyyy,HH,mm,ss", Locale.KOREA));
+            ChatMessageDto chatMessageDto = new ChatMessageDto();
+            chatMessageDto.setType(ChatMessage.MessageType.QUIT);
+            chatMessageDto.setQuitOwner(true);
+            chatMessageDto.setRoomId(String.valueOf(post.getId()));
+            chatMessageDto.setUserId(user.getId());
+            chatMessageDto.setSender(user.getNickName());
+            chatMessageDto.setProfileUrl(user.getProfileUrl());
+            chatMessageDto.setCreatedAt(createdAtString);
+            chatMessageDto.setMessage("약속시간 이후 24시간이 지나 더 이상 대화를 할 수 없으며 채팅방을 나가면 다시 입장할 수 없습니다.");
+            TransactionCallbacks.afterCommit(() -> redisPublisher.publish(ChatRoomRepository.getTopic(chatMessageDto.getRoomId()), chatMessageDto));
         }
+        return postList.size();
     }
 }
@@ -0,0 +1,42 @@
+package com.sparta.meeting_platform.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+ * 현재 트랜잭션이 끝난 뒤 실행 (트랜잭션 밖이면 바로 실행)
+ * - afterCommit : 커밋된 경우만, Redis 반영, 알림 발행 등 롤백되면 안 되는 부수 효과에 쓴다.
+ * - afterCompletion : 커밋/롤백 상관없이
+ * 이 시점에도 트랜잭션 자원(커넥션)이 묶여 있으므로, DB 를 쓰려면 PROPAGATION_REQUIRES_NEW 로 실행해야 한다.
+ */
+public class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    public static void afterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+
+    public static void afterCompletion(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                runnable.run();
+            }
+        });
+    }
+}
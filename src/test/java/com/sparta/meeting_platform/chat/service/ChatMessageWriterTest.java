@@ -0,0 +1,157 @@
+package com.sparta.meeting_platform.chat.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.meeting_platform.chat.model.ChatMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 채팅 메시지 write-behind 저장 : 잘못된 메시지 격리(dead-letter), spill 파일 다시 저장
+ * MySQL 컨테이너에서 실행한다. (id 를 직접 정하므로 Redis 시퀀스는 쓰지 않는다)
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ChatMessageWriterTest {
+    private static final String ROOM_ID = "1";
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static DataSourceTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path tempDir;
+
+    private Path spillFile;
+    private ChatMessageWriter writer;
+
+    @BeforeAll
+    static void setUpAll() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate.execute("CREATE TABLE chat_message (id BIGINT PRIMARY KEY, room_id VARCHAR(255) NOT NULL, "
+                + "type VARCHAR(255) NOT NULL, sender VARCHAR(255) NOT NULL, message VARCHAR(255) NOT NULL, "
+                + "profile_url VARCHAR(255) NOT NULL, enter_user_cnt BIGINT, user_id BIGINT NOT NULL, "
+                + "created_at DATETIME(6) NOT NULL, file_url VARCHAR(255), quit_owner BIT)");
+        jdbcTemplate.execute("CREATE TABLE resign_chat_message (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "room_id VARCHAR(255) NOT NULL, type VARCHAR(255) NOT NULL, sender VARCHAR(255) NOT NULL, "
+                + "message VARCHAR(255) NOT NULL, profile_url VARCHAR(255) NOT NULL, enter_user_cnt BIGINT, "
+                + "user_id BIGINT NOT NULL, created_at DATETIME(6) NOT NULL, file_url VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE chat_room (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "room_id VARCHAR(255) NOT NULL UNIQUE, username VARCHAR(255) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE resign_chat_room (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "room_id VARCHAR(255) NOT NULL, username VARCHAR(255) NOT NULL, INDEX (room_id))");
+        jdbcTemplate.update("INSERT INTO chat_room (room_id, username) VALUES (?, ?)", ROOM_ID, "owner@test.com");
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM chat_message");
+        spillFile = tempDir.resolve("chat-message-spill.jsonl");
+        writer = new ChatMessageWriter(jdbcTemplate, transactionManager, new StringRedisTemplate(), objectMapper,
+                new SimpleMeterRegistry(), 100, 500, 50, spillFile.toString());
+        ReflectionTestUtils.invokeMethod(writer, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(writer, "stop");
+    }
+
+    @Test
+    void badMessageIsDeadLetteredAndRestOfBatchIsSaved() throws Exception {
+        writer.enqueue(message(1L, "첫번째"));
+        writer.enqueue(message(2L, repeat("가", 300))); // message varchar(255) 초과
+        writer.enqueue(message(3L, "세번째"));
+        writer.flush();
+
+        assertThat(savedIds()).containsExactly(1L, 3L);
+        assertThat(Files.exists(spillFile)).isFalse();
+        List<String> dead = Files.readAllLines(Paths.get(spillFile + ".dead"), StandardCharsets.UTF_8);
+        assertThat(dead).hasSize(1);
+        assertThat(objectMapper.readValue(dead.get(0), ChatMessage.class).getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void recoverIncludesLeftoverRecoveringFileAndAppendsNewSpill() throws Exception {
+        Path recovering = Paths.get(spillFile + ".recovering");
+        // 지난번 다시 저장하다 실패해 남은 파일 + 그 뒤 종료때 남긴 spill 파일
+        Files.write(recovering, Collections.singletonList(objectMapper.writeValueAsString(message(10L, "남은 메시지"))),
+                StandardCharsets.UTF_8);
+        Files.write(spillFile, Arrays.asList(
+                objectMapper.writeValueAsString(message(11L, "새 메시지")),
+                objectMapper.writeValueAsString(message(12L, repeat("나", 300))),
+                "{\"id\": 13, \"roomId\""), StandardCharsets.UTF_8); // 끝까지 쓰지 못한 줄
+
+        writer.recover();
+
+        assertThat(savedIds()).containsExactly(10L, 11L);
+        assertThat(Files.exists(spillFile)).isFalse();
+        assertThat(Files.exists(recovering)).isFalse();
+        assertThat(Files.readAllLines(Paths.get(spillFile + ".dead"), StandardCharsets.UTF_8)).hasSize(2);
+    }
+
+    @Test
+    void recoverSkipsAlreadySavedMessages() throws Exception {
+        writer.enqueue(message(20L, "저장된 메시지"));
+        writer.flush();
+        Files.write(spillFile, Arrays.asList(
+                objectMapper.writeValueAsString(message(20L, "저장된 메시지")),
+                objectMapper.writeValueAsString(message(21L, "저장 안 된 메시지"))), StandardCharsets.UTF_8);
+
+        writer.recover();
+
+        assertThat(savedIds()).containsExactly(20L, 21L);
+        assertThat(Files.exists(Paths.get(spillFile + ".recovering"))).isFalse();
+    }
+
+    private List<Long> savedIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM chat_message ORDER BY id", Long.class);
+    }
+
+    private static ChatMessage message(Long id, String text) {
+        ChatMessage chatMessage = new ChatMessage();
+        chatMessage.setId(id);
+        chatMessage.setRoomId(ROOM_ID);
+        chatMessage.setType(ChatMessage.MessageType.TALK);
+        chatMessage.setSender("tester");
+        chatMessage.setMessage(text);
+        chatMessage.setProfileUrl("https://example.com/profile.png");
+        chatMessage.setEnterUserCnt(1L);
+        chatMessage.setUserId(1L);
+        chatMessage.setCreatedAt(LocalDateTime.of(2026, 10, 18, 12, 0));
+        chatMessage.setQuitOwner(false);
+        return chatMessage;
+    }
+
+    private static String repeat(String text, int count) {
+        return String.join("", Collections.nCopies(count, text));
+    }
+}
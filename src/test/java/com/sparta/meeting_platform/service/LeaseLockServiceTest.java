@@ -0,0 +1,148 @@
+package com.sparta.meeting_platform.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 한 JVM 안에 LeaseLockService 를 여러개 만들어 (서버 id 가 인스턴스마다 다름) 여러 서버처럼 락을 다툰다.
+ * Redis(락), MySQL(lease_fence) 컨테이너에서 실행한다.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class LeaseLockServiceTest {
+    private static final String NAME = "TEST";
+    private static final int NODES = 5;
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7").withExposedPorts(6379);
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate stringRedisTemplate;
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+    private static ThreadPoolTaskScheduler leaseScheduler;
+
+    @BeforeAll
+    static void setUpAll() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE lease_fence (name VARCHAR(255) PRIMARY KEY, token BIGINT NOT NULL)");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        leaseScheduler = new ThreadPoolTaskScheduler();
+        leaseScheduler.setPoolSize(1);
+        leaseScheduler.initialize();
+    }
+
+    @AfterAll
+    static void tearDownAll() {
+        leaseScheduler.shutdown();
+        connectionFactory.destroy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stringRedisTemplate.delete("LOCK:" + NAME);
+    }
+
+    @Test
+    void onlyOneNodeAcquires() throws Exception {
+        List<LeaseLockService> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(newNode());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(NODES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<LeaseLockService.Lease>> results = new ArrayList<>();
+        for (LeaseLockService node : nodes) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return node.tryAcquire(NAME, Duration.ofSeconds(10));
+            }));
+        }
+        start.countDown();
+        int acquired = 0;
+        for (Future<LeaseLockService.Lease> result : results) {
+            if (result.get(10, TimeUnit.SECONDS) != null) {
+                acquired++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(acquired).isEqualTo(1);
+    }
+
+    @Test
+    void expiredLeaseIsTakenOverAndStaleWriteIsFenced() throws Exception {
+        LeaseLockService first = newNode();
+        LeaseLockService second = newNode();
+
+        LeaseLockService.Lease stale = first.tryAcquire(NAME, Duration.ofMillis(300));
+        assertThat(stale).isNotNull();
+        Thread.sleep(500); // 연장 없이 ttl 초과 (멈췄던 서버)
+
+        LeaseLockService.Lease current = second.tryAcquire(NAME, Duration.ofSeconds(10));
+        assertThat(current).isNotNull();
+        assertThat(current.getToken()).isGreaterThan(stale.getToken());
+        assertThat(first.renew(stale, Duration.ofSeconds(10))).isFalse();
+
+        assertThat(transactionTemplate.execute(status -> second.fence(current))).isTrue();
+        // 깨어난 서버의 쓰기는 fencing 에 막힌다.
+        assertThat(transactionTemplate.execute(status -> first.fence(stale))).isFalse();
+        second.release(current);
+    }
+
+    @Test
+    void keepAliveOutlivesTtl() throws Exception {
+        LeaseLockService first = newNode();
+        LeaseLockService second = newNode();
+
+        LeaseLockService.Lease lease = first.tryAcquire(NAME, Duration.ofMillis(300));
+        assertThat(lease).isNotNull();
+        first.keepAlive(lease, Duration.ofMillis(300));
+        Thread.sleep(1000); // ttl 보다 오래 걸리는 작업
+
+        assertThat(lease.isLost()).isFalse();
+        assertThat(second.tryAcquire(NAME, Duration.ofSeconds(10))).isNull();
+
+        first.release(lease);
+        assertThat(second.tryAcquire(NAME, Duration.ofSeconds(10))).isNotNull();
+    }
+
+    private LeaseLockService newNode() {
+        return new LeaseLockService(stringRedisTemplate, jdbcTemplate, leaseScheduler);
+    }
+}
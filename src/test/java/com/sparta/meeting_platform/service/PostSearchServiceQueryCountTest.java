@@ -0,0 +1,152 @@
+package com.sparta.meeting_platform.service;
+
+import com.sparta.meeting_platform.chat.model.InvitedUsers;
+import com.sparta.meeting_platform.domain.Like;
+import com.sparta.meeting_platform.domain.Post;
+import com.sparta.meeting_platform.domain.User;
+import com.sparta.meeting_platform.domain.UserRoleEnum;
+import com.sparta.meeting_platform.dto.PostDto.PostGeoDto;
+import com.sparta.meeting_platform.dto.PostDto.PostRequestDto;
+import com.sparta.meeting_platform.dto.PostDto.PostResponseDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 게시글 목록 조회 쿼리 수가 게시글 수와 상관없이 일정한지, 카드 값(참여인원, 평균온도, 찜, 대표 이미지)이 채워지는지 확인
+ * (쿼리 수는 Hibernate Statistics)
+ * 카드 조회가 MySQL 함수(ST_DISTANCE_SPHERE 등)를 쓰므로 MySQL 컨테이너에서 실행한다.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PostSearchService.class, PostCardService.class, PostAggregateService.class})
+class PostSearchServiceQueryCountTest {
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    @Autowired
+    private EntityManager em;
+    @Autowired
+    private PostSearchService postSearchService;
+    @Autowired
+    private PostAggregateService postAggregateService;
+
+    private User user;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .username("tester@test.com")
+                .password("password")
+                .nickName("tester")
+                .mannerTemp(50)
+                .isOwner(false)
+                .role(UserRoleEnum.USER)
+                .createdAt(LocalDateTime.now())
+                .build();
+        em.persist(user);
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void 목록_쿼리수는_게시글수와_상관없다() {
+        List<PostGeoDto> one = createPosts(1);
+        List<PostGeoDto> many = createPosts(30);
+
+        long oneCount = countQueries(one);
+        long manyCount = countQueries(many);
+
+        assertThat(oneCount).isEqualTo(1);
+        assertThat(manyCount).isEqualTo(oneCount);
+    }
+
+    @Test
+    void 목록_카드값을_채운다() {
+        List<PostGeoDto> geoPosts = createPosts(4);
+        em.flush();
+        em.clear();
+
+        List<PostResponseDto> posts = postSearchService.searchIndexedPostList(geoPosts, user.getId());
+
+        assertThat(posts).hasSize(geoPosts.size());
+        Map<Long, PostResponseDto> postMap = new HashMap<>();
+        for (PostResponseDto post : posts) {
+            postMap.put(post.getPostId(), post);
+        }
+        for (int i = 0; i < geoPosts.size(); i++) {
+            PostResponseDto post = postMap.get(geoPosts.get(i).getId());
+            assertThat(post).isNotNull();
+            assertThat(post.getJoinCount()).isEqualTo(1);
+            assertThat(post.getAvgTemp()).isEqualTo(user.getMannerTemp());
+            assertThat(post.getIsLike()).isEqualTo(i % 2 == 0);
+            assertThat(post.getPostUrl()).isEqualTo("url" + i + "-1");
+        }
+    }
+
+    private long countQueries(List<PostGeoDto> geoPosts) {
+        em.flush();
+        em.clear();
+        statistics.clear();
+        List<PostResponseDto> posts = postSearchService.searchIndexedPostList(geoPosts, user.getId());
+        assertThat(posts).hasSize(geoPosts.size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    // 이미지 2장, 참여자 1명(집계는 PostAggregateService 로), 짝수번째는 찜한 게시글
+    private List<PostGeoDto> createPosts(int count) {
+        List<PostGeoDto> geoPosts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double longitude = 127.0 + i * 0.001;
+            double latitude = 37.5;
+            PostRequestDto requestDto = new PostRequestDto("title" + i, "2099-01-01 12:00:00", "content", 4, "place",
+                    new ArrayList<>(Collections.singletonList("tag")), new ArrayList<>(Collections.singletonList("맛집")),
+                    new ArrayList<>(Arrays.asList("url" + i + "-1", "url" + i + "-2")), latitude, longitude, false);
+            Post post = new Post(user, requestDto, longitude, latitude,
+                    GEOMETRY_FACTORY.createPoint(new Coordinate(longitude, latitude)));
+            em.persist(post);
+            em.persist(new InvitedUsers(post.getId(), user));
+            postAggregateService.join(post.getId(), user.getMannerTemp());
+            if (i % 2 == 0) {
+                em.persist(new Like(post, user));
+            }
+            geoPosts.add(new PostGeoDto(post));
+        }
+        return geoPosts;
+    }
+}